@@ -0,0 +1,166 @@
+package graphs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Answers many path queries on the same graph snapshot at once. The queries
+ * are grouped by their source node, and each source is searched once with a
+ * breadth-first-search that stops as soon as every target asked for from that
+ * source has been reached. Different sources are searched in parallel.
+ *
+ * @author kevinlee
+ *
+ */
+public class BatchPathFinder {
+
+    private final CompactGraph graph;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a finder for the current nodes and edges of a graph, which runs
+     * on the common pool
+     *
+     * @param g
+     *            The graph
+     */
+    public BatchPathFinder(Graph g) {
+        this(g.freeze(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a finder for a snapshot, which runs on the given pool
+     *
+     * @param g
+     *            The snapshot
+     * @param pool
+     *            The pool the sources are searched on
+     */
+    public BatchPathFinder(CompactGraph g, ForkJoinPool pool) {
+        this.graph = g;
+        this.pool = pool;
+    }
+
+    /**
+     * Finds a shortest path (in number of edges) for each query
+     *
+     * @param queries
+     *            The queries
+     * @return The edges of the path for each query, in the same order as the
+     *         queries, or null for a query that has no path
+     * @throws IllegalArgumentException
+     *             If a query has a node that isn't in the snapshot
+     */
+    public List<List<Edge>> findPaths(List<PathQuery> queries) {
+        // Sort the queries by source id, keeping their positions
+        long[] order = new long[queries.size()];
+        final int[] targets = new int[queries.size()];
+        for (int i = 0; i < order.length; i++) {
+            PathQuery query = queries.get(i);
+            int source = graph.getId(query.getSource());
+            targets[i] = graph.getId(query.getTarget());
+            if (source < 0 || targets[i] < 0)
+                throw new IllegalArgumentException("Node is not in the graph: " + query);
+            order[i] = ((long) source << 32) | i;
+        }
+        Arrays.sort(order);
+
+        // Search from each source
+        final List<List<Edge>> paths = new ArrayList<List<Edge>>(Collections.<List<Edge>> nCopies(order.length,
+                null));
+        List<ForkJoinTask<?>> tasks = new ArrayList<ForkJoinTask<?>>();
+        int start = 0;
+        while (start < order.length) {
+            int end = start + 1;
+            while (end < order.length && (order[end] >>> 32) == (order[start] >>> 32)) {
+                end++;
+            }
+            final int source = (int) (order[start] >>> 32);
+            final int[] group = new int[end - start];
+            for (int i = start; i < end; i++) {
+                group[i - start] = (int) order[i];
+            }
+            tasks.add(pool.submit(new Runnable() {
+                @Override
+                public void run() {
+                    search(source, group, targets, paths);
+                }
+            }));
+            start = end;
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+        return paths;
+    }
+
+    /**
+     * Runs a breadth-first-search from a source until all the targets of its
+     * queries are reached, and stores the paths found
+     *
+     * @param source
+     *            The id of the source node
+     * @param group
+     *            The indexes of the queries from the source
+     * @param targets
+     *            The id of the target node of every query
+     * @param paths
+     *            Where the path of every query is stored
+     */
+    private void search(int source, int[] group, int[] targets, List<List<Edge>> paths) {
+        int nodeCount = graph.getNodeCount();
+        int[] reachedBy = new int[nodeCount]; // edge number, or -1
+        int[] previousNode = new int[nodeCount];
+        boolean[] visited = new boolean[nodeCount];
+        boolean[] wanted = new boolean[nodeCount];
+        Arrays.fill(reachedBy, -1);
+
+        int remaining = 0;
+        for (int query : group) {
+            if (!wanted[targets[query]]) {
+                wanted[targets[query]] = true;
+                remaining++;
+            }
+        }
+        int[] queue = new int[nodeCount];
+        int head = 0;
+        int tail = 0;
+        visited[source] = true;
+        queue[tail++] = source;
+        if (wanted[source]) {
+            remaining--;
+        }
+
+        while (head < tail && remaining > 0) {
+            int node = queue[head++];
+            for (int edge = graph.getFirstEdge(node); edge < graph.getFirstEdge(node + 1); edge++) {
+                int next = graph.getTarget(edge);
+                if (visited[next])
+                    continue;
+                visited[next] = true;
+                reachedBy[next] = edge;
+                previousNode[next] = node;
+                queue[tail++] = next;
+                if (wanted[next] && --remaining == 0)
+                    break;
+            }
+        }
+
+        for (int query : group) {
+            int target = targets[query];
+            if (!visited[target])
+                continue;
+            List<Edge> path = new ArrayList<Edge>();
+            for (int node = target; node != source; node = previousNode[node]) {
+                path.add(graph.getEdge(reachedBy[node]));
+            }
+            Collections.reverse(path);
+            paths.set(query, path);
+        }
+    }
+
+}
@@ -0,0 +1,129 @@
+package graphs;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Gives dense ids to distinct byte strings, so that values can be looked up
+ * straight from a slice of an input buffer without decoding them first. The
+ * bytes of every string are kept end to end in one array, and the table is
+ * open addressing over primitive arrays.
+ *
+ * @author kevinlee
+ *
+ */
+class ByteIndex {
+
+    private int[] slots = new int[16]; // id + 1, or 0 for an empty slot
+    private int[] hashes = new int[16]; // by id
+    private int[] offsets = new int[17]; // by id, where each string starts
+    private byte[] data = new byte[256];
+    private int size;
+
+    /**
+     * Returns the id of a byte string, adding it if it is new. Ids are given
+     * out from 0 in the order strings are added, so a string is new if its id
+     * is the size before the call.
+     *
+     * @param bytes
+     *            The buffer the string is in
+     * @param start
+     *            The index of the first byte of the string
+     * @param end
+     *            One more than the index of the last byte of the string
+     * @return The id of the string
+     */
+    int intern(byte[] bytes, int start, int end) {
+        int hash = hash(bytes, start, end);
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        while (slots[slot] != 0) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && equals(id, bytes, start, end))
+                return id;
+            slot = (slot + 1) & mask;
+        }
+
+        // Add the string
+        int id = size++;
+        int length = end - start;
+        if (id == hashes.length) {
+            hashes = Arrays.copyOf(hashes, id * 2);
+            offsets = Arrays.copyOf(offsets, id * 2 + 1);
+        }
+        int offset = offsets[id];
+        if (offset + length > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, offset + length));
+        }
+        System.arraycopy(bytes, start, data, offset, length);
+        offsets[id + 1] = offset + length;
+        hashes[id] = hash;
+        slots[slot] = id + 1;
+        if (size * 2 > slots.length) {
+            grow();
+        }
+        return id;
+    }
+
+    /**
+     * Returns the number of strings in the index
+     *
+     * @return The number of strings
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns a stored string, decoded as UTF-8
+     *
+     * @param id
+     *            The id of the string
+     * @return The string
+     */
+    String getString(int id) {
+        return new String(data, offsets[id], offsets[id + 1] - offsets[id], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Determines whether a stored string has the same bytes as a slice
+     */
+    private boolean equals(int id, byte[] bytes, int start, int end) {
+        int offset = offsets[id];
+        if (offsets[id + 1] - offset != end - start)
+            return false;
+        for (int i = start; i < end; i++) {
+            if (data[offset++] != bytes[i])
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Doubles the table and re-inserts every id
+     */
+    private void grow() {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+
+    /**
+     * Hashes a slice, spreading the bits so that similar strings don't cluster
+     */
+    private static int hash(byte[] bytes, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + bytes[i];
+        }
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+}
@@ -0,0 +1,306 @@
+package graphs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable snapshot of a graph, stored in primitive arrays. Each node is
+ * given a dense int id from 0 to getNodeCount() - 1, and the edges are stored
+ * in compressed sparse row form: the edges pointing out of node n are numbered
+ * getFirstEdge(n) to getFirstEdge(n + 1) - 1, and edge e points to node
+ * getTarget(e).
+ *
+ * Besides the arrays, the snapshot keeps the Node and Edge objects of the
+ * original graph, by id, so that paths can be returned as Edges and nodes
+ * are told apart by identity even if they share a value. Each distinct edge
+ * value is stored once.
+ *
+ * Changes made to the original graph after the snapshot is taken are not
+ * reflected in the snapshot.
+ *
+ * @author kevinlee
+ *
+ */
+public class CompactGraph implements IndexedGraph {
+
+    private final Object value;
+    private final Node[] nodes;
+    private final Map<Node, Integer> ids;
+    private final Object[] nodeValues;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] edgeValues; // indexes into values
+    private final Object[] values; // the distinct edge values
+    private final Edge[] edges;
+    private final int startNode;
+    private final int finishNode;
+    private volatile int[][] reverse; // offsets and origins of the
+                                      // inpointing edges, built when first
+                                      // needed
+
+    /**
+     * Builds a snapshot of the given graph
+     *
+     * @param g
+     *            The graph to be copied
+     */
+    public CompactGraph(Graph g) {
+        this.value = g.getValue();
+        Set<Node> graphNodes = g.getNodeView();
+        this.nodes = new Node[graphNodes.size()];
+        this.ids = new IdentityHashMap<Node, Integer>(graphNodes.size());
+        this.nodeValues = new Object[nodes.length];
+
+        int edgeCount = 0;
+        int id = 0;
+        for (Node node : graphNodes) {
+            nodes[id] = node;
+            ids.put(node, id);
+            nodeValues[id] = node.getValue();
+            edgeCount += node.getOutpointingEdgeView().size();
+            id++;
+        }
+
+        this.offsets = new int[nodes.length + 1];
+        this.targets = new int[edgeCount];
+        this.edgeValues = new int[edgeCount];
+        this.edges = new Edge[edgeCount];
+        Map<Object, Integer> valueIds = new HashMap<Object, Integer>();
+        List<Object> distinctValues = new ArrayList<Object>();
+
+        int e = 0;
+        for (int n = 0; n < nodes.length; n++) {
+            offsets[n] = e;
+            for (Edge edge : nodes[n].getOutpointingEdgeView()) {
+                targets[e] = ids.get(edge.getDestination());
+                Integer valueId = valueIds.get(edge.getValue());
+                if (valueId == null) {
+                    valueId = distinctValues.size();
+                    valueIds.put(edge.getValue(), valueId);
+                    distinctValues.add(edge.getValue());
+                }
+                edgeValues[e] = valueId;
+                edges[e] = edge;
+                e++;
+            }
+        }
+        offsets[nodes.length] = e;
+        this.values = distinctValues.toArray();
+        this.startNode = findNode("start");
+        this.finishNode = findNode("finish");
+    }
+
+    /**
+     * Returns the first node whose value is the given name, ignoring case, or
+     * -1
+     */
+    private int findNode(String name) {
+        for (int n = 0; n < nodeValues.length; n++) {
+            if (nodeValues[n] != null && nodeValues[n].toString().toLowerCase().equals(name))
+                return n;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the value (name) of the graph this snapshot was taken from
+     *
+     * @return The value of the graph
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the number of nodes in this snapshot
+     *
+     * @return The number of nodes
+     */
+    @Override
+    public int getNodeCount() {
+        return nodeValues.length;
+    }
+
+    /**
+     * Returns the number of edges in this snapshot
+     *
+     * @return The number of edges
+     */
+    public int getEdgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Returns the node with the given id
+     *
+     * @param node
+     *            The id of the node
+     * @return The node with that id
+     */
+    public Node getNode(int node) {
+        return nodes[node];
+    }
+
+    /**
+     * Returns the id of the given node
+     *
+     * @param node
+     *            A node of the original graph
+     * @return The id of the node, or -1 if it is not in this snapshot
+     */
+    public int getId(Node node) {
+        Integer id = ids.get(node);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the value of the node with the given id
+     *
+     * @param node
+     *            The id of the node
+     * @return The value of that node
+     */
+    @Override
+    public Object getNodeValue(int node) {
+        return nodeValues[node];
+    }
+
+    /**
+     * Returns the number of edges pointing out of a node
+     *
+     * @param node
+     *            The id of the node
+     * @return The number of outpointing edges
+     */
+    @Override
+    public int getOutDegree(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    /**
+     * Returns the number of the first edge pointing out of a node. The edges
+     * out of node n run up to (but not including) getFirstEdge(n + 1).
+     *
+     * @param node
+     *            The id of the node, or getNodeCount() for the end of the
+     *            last node's edges
+     * @return The number of the node's first outpointing edge
+     */
+    public int getFirstEdge(int node) {
+        return offsets[node];
+    }
+
+    /**
+     * Returns the id of the node that an edge points to
+     *
+     * @param edge
+     *            The number of the edge
+     * @return The id of the destination node
+     */
+    public int getTarget(int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * Returns the number of edges pointing into a node
+     *
+     * @param node
+     *            The id of the node
+     * @return The number of inpointing edges
+     */
+    public int getInDegree(int node) {
+        int[] inOffsets = getReverse()[0];
+        return inOffsets[node + 1] - inOffsets[node];
+    }
+
+    /**
+     * Returns the node that one of a node's inpointing edges comes from
+     *
+     * @param node
+     *            The id of the destination node
+     * @param index
+     *            Which of the node's inpointing edges, from 0 to
+     *            getInDegree(node) - 1
+     * @return The id of the origin node
+     */
+    public int getPredecessor(int node, int index) {
+        int[][] reverse = getReverse();
+        return reverse[1][reverse[0][node] + index];
+    }
+
+    /**
+     * Returns the inpointing edges in compressed sparse row form, building
+     * them from the outpointing edges the first time
+     */
+    private int[][] getReverse() {
+        int[][] result = reverse;
+        if (result == null) {
+            int nodeCount = nodeValues.length;
+            int[] inOffsets = new int[nodeCount + 1];
+            for (int edge = 0; edge < targets.length; edge++) {
+                inOffsets[targets[edge] + 1]++;
+            }
+            for (int node = 0; node < nodeCount; node++) {
+                inOffsets[node + 1] += inOffsets[node];
+            }
+            int[] next = Arrays.copyOf(inOffsets, nodeCount);
+            int[] origins = new int[targets.length];
+            for (int node = 0; node < nodeCount; node++) {
+                for (int edge = offsets[node]; edge < offsets[node + 1]; edge++) {
+                    origins[next[targets[edge]]++] = node;
+                }
+            }
+            result = new int[][] { inOffsets, origins };
+            reverse = result; // Racing threads build equal arrays
+        }
+        return result;
+    }
+
+    @Override
+    public int getStartNode() {
+        return startNode;
+    }
+
+    @Override
+    public int getFinishNode() {
+        return finishNode;
+    }
+
+    @Override
+    public int getNeighbour(int node, int index) {
+        return targets[offsets[node] + index];
+    }
+
+    @Override
+    public Object getEdgeValue(int node, int index) {
+        return values[edgeValues[offsets[node] + index]];
+    }
+
+    /**
+     * Returns the value of an edge
+     *
+     * @param edge
+     *            The number of the edge
+     * @return The value of the edge
+     */
+    public Object getEdgeValue(int edge) {
+        return values[edgeValues[edge]];
+    }
+
+    /**
+     * Returns the Edge of the original graph that an edge number stands for
+     *
+     * @param edge
+     *            The number of the edge
+     * @return The original Edge
+     */
+    public Edge getEdge(int edge) {
+        return edges[edge];
+    }
+
+}
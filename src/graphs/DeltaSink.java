@@ -0,0 +1,47 @@
+package graphs;
+
+/**
+ * A GraphSink that can also take deletions. When Graph.parse reads a line
+ * starting with '!', it looks the nodes on the line up with find instead of
+ * node, and deletes the line's edge, or its node if it only has one, instead
+ * of adding it.
+ *
+ * @author kevinlee
+ *
+ * @param <N>
+ *            What the sink uses to stand for a node
+ */
+interface DeltaSink<N> extends GraphSink<N> {
+
+    /**
+     * Returns what stands for the node with the given value, without creating
+     * it
+     *
+     * @param value
+     *            The value of the node
+     * @return The node, or something standing for a missing node, but never
+     *         null
+     */
+    N find(String value);
+
+    /**
+     * Deletes an edge
+     *
+     * @param from
+     *            The origin node
+     * @param value
+     *            The value of the edge
+     * @param to
+     *            The destination node
+     */
+    void deleteEdge(N from, String value, N to);
+
+    /**
+     * Deletes a node and its edges
+     *
+     * @param node
+     *            The node
+     */
+    void deleteNode(N node);
+
+}
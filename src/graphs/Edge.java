@@ -35,6 +35,19 @@ public class Edge extends Plex {
             throw new NullPointerException("Null nodes");
         this.addOrigin(fromNode);
         this.addDestination(toNode);
+        structureChanged(fromNode);
+    }
+
+    /**
+     * Creates an edge that isn't joined to any nodes yet. The caller must join
+     * it with addOrigin and addDestination, and then tell the graph that its
+     * structure has changed.
+     * 
+     * @param value
+     *            The value of the edge
+     */
+    Edge(Object value) {
+        super(value);
     }
 
     /**
@@ -42,26 +55,35 @@ public class Edge extends Plex {
      */
     public void delete() {
 
-        for (Plex plex : this.origins) { // Delete edges from origin node
-            Node fromNode = (Node) plex;
+        Node fromNode = this.getOrigin(); // Delete edges from origin node
+        if (fromNode != null) {
             this.removeOrigin(fromNode);
+            structureChanged(fromNode);
         }
 
-        for (Plex plex : this.destinations) { // Delete edges from origin node
-            Node toNode = (Node) plex;
+        Node toNode = this.getDestination(); // Delete edges from destination node
+        if (toNode != null)
             this.removeDestination(toNode);
-        }
 
     }
 
+    /**
+     * Tells the graph a node is on that its edges have changed
+     */
+    private static void structureChanged(Node node) {
+        Graph graph = node.getGraph();
+        if (graph != null)
+            graph.structureChanged();
+    }
+
     /**
      * Returns the graph that this edge is on.
      * 
      * @return the Graph that this edge is on
      */
     public Graph getGraph() {
-        Node node = (Node) Plex.getOne(this.origins);
-        Graph graph = (Graph) Plex.getOne(node.containers);
+        Node node = this.getOrigin();
+        Graph graph = node.getGraph();
         return (Graph) graph;
 
     }
@@ -72,7 +94,7 @@ public class Edge extends Plex {
      * @return the Origin node
      */
     public Node getOrigin() {
-        return (Node) Edge.getOne(this.origins);
+        return (Node) this.getOneOrigin();
     }
 
     /**
@@ -81,7 +103,7 @@ public class Edge extends Plex {
      * @return the Destination node
      */
     public Node getDestination() {
-        return (Node) Edge.getOne(this.destinations);
+        return (Node) this.getOneDestination();
     }
 
     /**
@@ -0,0 +1,305 @@
+package graphs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads graphs from edge lists, with one "from,to" or "from,to,label" edge
+ * per line, without going through the Tokenizer. The input is split into
+ * lines and fields a byte at a time, and each node value and label is looked
+ * up by its bytes, so a value is only decoded the first time it is seen.
+ * Edges are collected in batches of BATCH_SIZE, and each batch's new nodes
+ * and edges are created together.
+ *
+ * Spaces and tabs around a field are ignored, as are blank lines, and lines
+ * may end in "\n" or "\r\n". There is no quoting, so values can't contain the
+ * delimiter. An edge without a label gets the empty string, as it would from
+ * Graph.read.
+ *
+ * @author kevinlee
+ *
+ */
+public class EdgeListLoader {
+
+    /** The number of edges collected before they are added to the graph. */
+    public static final int BATCH_SIZE = 1 << 14;
+
+    /** The number of bytes read from the input at a time. */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final byte delimiter;
+
+    /**
+     * Creates a loader for comma separated edge lists
+     */
+    public EdgeListLoader() {
+        this(',');
+    }
+
+    /**
+     * Creates a loader for edge lists with the given delimiter
+     *
+     * @param delimiter
+     *            The character between fields, which must be ASCII
+     */
+    public EdgeListLoader(char delimiter) {
+        if (delimiter > 127 || delimiter == '\n' || delimiter == '\r')
+            throw new IllegalArgumentException("Invalid delimiter");
+        this.delimiter = (byte) delimiter;
+    }
+
+    /**
+     * Reads an edge list into a new Graph. Node values and labels are
+     * strings, as Graph.read would give them.
+     *
+     * @param name
+     *            The name of the graph
+     * @param in
+     *            The UTF-8 edge list, which is read to the end but not closed
+     * @return The resulting graph
+     * @throws IOException
+     *             If the input can't be read
+     */
+    public Graph readGraph(Object name, InputStream in) throws IOException {
+        GraphTarget target = new GraphTarget(name);
+        load(in, target);
+        return target.graph;
+    }
+
+    /**
+     * Reads an edge list with integer node values into a new IntGraph. The
+     * node values are parsed straight from the bytes.
+     *
+     * @param name
+     *            The name of the graph
+     * @param in
+     *            The UTF-8 edge list, which is read to the end but not closed
+     * @return The resulting graph
+     * @throws IOException
+     *             If the input can't be read
+     * @throws IllegalArgumentException
+     *             If a node value isn't an integer
+     */
+    public IntGraph readIntGraph(Object name, InputStream in) throws IOException {
+        IntGraphTarget target = new IntGraphTarget(name);
+        load(in, target);
+        return target.graph;
+    }
+
+    /**
+     * Splits the input into lines, and passes each line's edge to a target
+     */
+    private void load(InputStream in, Target target) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int length = 0; // the number of bytes in the buffer
+        int lineStart = 0;
+        int scanned = 0; // bytes from lineStart already checked for '\n'
+        int line = 0;
+        while (true) {
+            int read = in.read(buffer, length, buffer.length - length);
+            if (read > 0) {
+                length += read;
+            }
+            for (int i = scanned; i < length; i++) {
+                if (buffer[i] == '\n') {
+                    parseLine(buffer, lineStart, i, ++line, target);
+                    lineStart = i + 1;
+                }
+            }
+            if (read < 0) {
+                if (lineStart < length) {
+                    parseLine(buffer, lineStart, length, ++line, target);
+                }
+                break;
+            }
+
+            // Keep the unfinished line, at the start of the buffer
+            length -= lineStart;
+            System.arraycopy(buffer, lineStart, buffer, 0, length);
+            lineStart = 0;
+            scanned = length;
+            if (length == buffer.length) { // A line longer than the buffer
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+        }
+        target.flush();
+    }
+
+    /**
+     * Splits a line into its fields, and passes its edge to a target
+     */
+    private void parseLine(byte[] buffer, int start, int end, int line, Target target) {
+        if (end > start && buffer[end - 1] == '\r') {
+            end--;
+        }
+        int[] bounds = target.bounds;
+        int fields = 0;
+        int fieldStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || buffer[i] == delimiter) {
+                if (fields == 3)
+                    throw new RuntimeException("Invalid edge list (line " + line + ")");
+                int s = fieldStart;
+                int e = i;
+                while (s < e && isSpace(buffer[s])) {
+                    s++;
+                }
+                while (e > s && isSpace(buffer[e - 1])) {
+                    e--;
+                }
+                bounds[2 * fields] = s;
+                bounds[2 * fields + 1] = e;
+                fields++;
+                fieldStart = i + 1;
+            }
+        }
+        if (fields == 1 && bounds[0] == bounds[1]) // A blank line
+            return;
+        if (fields < 2 || bounds[0] == bounds[1] || bounds[2] == bounds[3])
+            throw new RuntimeException("Invalid edge list (line " + line + ")");
+
+        int from = target.node(buffer, bounds[0], bounds[1]);
+        int to = target.node(buffer, bounds[2], bounds[3]);
+        int label = fields == 3 ? target.label(buffer, bounds[4], bounds[5]) : target.label(buffer, 0, 0);
+        target.add(from, label, to);
+    }
+
+    /**
+     * Determines whether a byte is a space or tab
+     */
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    /**
+     * Something an edge list is read into. Edges are collected as ids, and
+     * handed to addBatch when there are BATCH_SIZE of them.
+     */
+    private abstract static class Target {
+        final int[] bounds = new int[6]; // the start and end of each field
+        private final ByteIndex labelIndex = new ByteIndex();
+        final List<String> labels = new ArrayList<String>();
+        private final int[] batch = new int[3 * BATCH_SIZE];
+        private int size;
+
+        /**
+         * Returns the id of a node value
+         */
+        abstract int node(byte[] bytes, int start, int end);
+
+        /**
+         * Adds a batch of edges, as from, label, to triples of ids
+         */
+        abstract void addBatch(int[] batch, int size);
+
+        /**
+         * Returns the id of a label, decoding it if it is new
+         */
+        int label(byte[] bytes, int start, int end) {
+            int id = labelIndex.intern(bytes, start, end);
+            if (id == labels.size()) {
+                labels.add(labelIndex.getString(id));
+            }
+            return id;
+        }
+
+        void add(int from, int label, int to) {
+            batch[size++] = from;
+            batch[size++] = label;
+            batch[size++] = to;
+            if (size == batch.length) {
+                flush();
+            }
+        }
+
+        void flush() {
+            addBatch(batch, size);
+            size = 0;
+        }
+    }
+
+    /**
+     * Reads an edge list into a Graph, whose node ids are given by a
+     * ByteIndex of their values
+     */
+    private static class GraphTarget extends Target {
+        private final Graph graph;
+        private final ByteIndex values = new ByteIndex();
+        private Node[] nodes = new Node[16];
+        private int nodeCount; // the number of nodes created so far
+
+        GraphTarget(Object name) {
+            graph = new Graph(name);
+        }
+
+        @Override
+        int node(byte[] bytes, int start, int end) {
+            return values.intern(bytes, start, end);
+        }
+
+        @Override
+        void addBatch(int[] batch, int size) {
+            if (values.size() > nodes.length) {
+                nodes = Arrays.copyOf(nodes, Math.max(nodes.length * 2, values.size()));
+            }
+            for (; nodeCount < values.size(); nodeCount++) {
+                nodes[nodeCount] = new Node(values.getString(nodeCount), graph);
+            }
+            for (int i = 0; i < size; i += 3) {
+                new Edge(nodes[batch[i]], labels.get(batch[i + 1]), nodes[batch[i + 2]]);
+            }
+        }
+    }
+
+    /**
+     * Reads an edge list into an IntGraph, using the node values themselves
+     * as ids
+     */
+    private static class IntGraphTarget extends Target {
+        private final IntGraph graph;
+
+        IntGraphTarget(Object name) {
+            graph = new IntGraph(name);
+        }
+
+        @Override
+        int node(byte[] bytes, int start, int end) {
+            boolean negative = bytes[start] == '-';
+            int i = negative ? start + 1 : start;
+            if (i == end)
+                throw notInteger(bytes, start, end);
+            long label = 0;
+            for (; i < end; i++) {
+                int digit = bytes[i] - '0';
+                if (digit < 0 || digit > 9)
+                    throw notInteger(bytes, start, end);
+                label = label * 10 + digit;
+                if (label > (long) Integer.MAX_VALUE + 1)
+                    throw notInteger(bytes, start, end);
+            }
+            if (negative) {
+                label = -label;
+            }
+            if (label > Integer.MAX_VALUE)
+                throw notInteger(bytes, start, end);
+            return (int) label;
+        }
+
+        private static IllegalArgumentException notInteger(byte[] bytes, int start, int end) {
+            return new IllegalArgumentException("Node value is not an integer: "
+                    + new String(bytes, start, end - start, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        void addBatch(int[] batch, int size) {
+            for (int i = 0; i < size; i += 3) {
+                graph.addEdge(batch[i], labels.get(batch[i + 1]), batch[i + 2]);
+            }
+        }
+    }
+
+}
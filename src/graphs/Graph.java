@@ -1,8 +1,19 @@
 package graphs;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -13,6 +24,21 @@ import java.util.Set;
  */
 public class Graph extends Plex {
 
+    /** The nodes of this graph, looked up by value. */
+    private Map<Object, Node> nodeIndex = new HashMap<Object, Node>();
+
+    /** The other nodes with the value of an indexed node, by value. */
+    private Map<Object, List<Node>> duplicates = new HashMap<Object, List<Node>>();
+
+    /** Counts changes to the nodes and edges, so caches can tell they're stale. */
+    private int structureVersion = 0;
+
+    /** The number of characters buffered when writing to a channel. */
+    public static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    /** Which nodes can be reached from which, built when first asked. */
+    private ReachabilityIndex reachability;
+
     /**
      * Creates a graph with the given value
      * 
@@ -50,7 +76,7 @@ public class Graph extends Plex {
      */
     public Set<Node> getNodes() {
         Set<Node> nodes = new HashSet<Node>();
-        for (Plex plex : this.contents) {
+        for (Plex plex : this.getContents()) {
             if (plex instanceof Node) {
                 nodes.add((Node) plex);
             }
@@ -58,38 +84,276 @@ public class Graph extends Plex {
         return nodes;
     }
 
+    /**
+     * Returns a read-only, live view of the nodes in this graph. Unlike
+     * getNodes, this does not copy anything, but the view must not be
+     * iterated over while nodes are being added or deleted.
+     * 
+     * @return A view of the Nodes in the graph
+     */
+    public Set<Node> getNodeView() {
+        return new PlexView<Node>(this.getContents(), Node.class);
+    }
+
+    /**
+     * Returns the node in this graph with the given value
+     * 
+     * @param value
+     *            The value of the node
+     * @return The node with that value, or null if there isn't one. If several
+     *         nodes share the value, one of them is returned.
+     */
+    public Node findNode(Object value) {
+        return nodeIndex.get(value);
+    }
+
+    /**
+     * Returns the node in this graph with the given value, creating it if
+     * there isn't one
+     * 
+     * @param value
+     *            The value of the node
+     * @return The node with that value
+     */
+    public Node getOrCreateNode(Object value) {
+        Node node = nodeIndex.get(value);
+        if (node == null) {
+            node = new Node(value, this);
+        }
+        return node;
+    }
+
+    /**
+     * Adds a node to the value index. Called when a node is created on this
+     * graph, or when its value changes.
+     * 
+     * @param node
+     *            The node to be indexed
+     */
+    void indexNode(Node node) {
+        Object value = node.getValue();
+        if (nodeIndex.containsKey(value)) {
+            List<Node> others = duplicates.get(value);
+            if (others == null) {
+                others = new ArrayList<Node>(1);
+                duplicates.put(value, others);
+            }
+            others.add(node);
+        } else {
+            nodeIndex.put(value, node);
+        }
+    }
+
+    /**
+     * Removes a node from the value index. Called when a node is deleted from
+     * this graph, or before its value changes. If it was the indexed node for
+     * its value, another node with the value takes its place.
+     * 
+     * @param node
+     *            The node to be removed from the index
+     */
+    void unindexNode(Node node) {
+        Object value = node.getValue();
+        List<Node> others = duplicates.get(value);
+        if (nodeIndex.get(value) == node) {
+            if (others == null) {
+                nodeIndex.remove(value);
+                return;
+            }
+            nodeIndex.put(value, others.remove(others.size() - 1));
+        } else if (others != null) {
+            others.remove(node); // Nodes are compared by identity
+        }
+        if (others != null && others.isEmpty()) {
+            duplicates.remove(value);
+        }
+    }
+
+    /**
+     * Records that a node or edge of this graph has been added or deleted.
+     * Called by the Node and Edge constructors and delete methods.
+     */
+    void structureChanged() {
+        structureVersion++;
+    }
+
+    /**
+     * Returns a number that changes whenever a node or edge of this graph is
+     * added or deleted
+     * 
+     * @return The structure version
+     */
+    int getStructureVersion() {
+        return structureVersion;
+    }
+
+    /**
+     * Determines whether there is a path from one node to another. The nodes
+     * reachable from each node asked about are remembered until a node or
+     * edge is added or deleted, so asking again about an unchanged graph is a
+     * constant-time lookup. Changes made directly through the Plex methods
+     * are not noticed. Nodes are told apart by identity, so renaming a node,
+     * or giving two nodes the same value, doesn't affect the answers.
+     * 
+     * @param from
+     *            The node the path starts at
+     * @param to
+     *            The node the path ends at
+     * @return true if to can be reached from from (or is from)
+     * @throws IllegalArgumentException
+     *             If either node is not in this graph
+     */
+    public boolean isReachable(Node from, Node to) {
+        if (reachability == null || reachability.getStructureVersion() != structureVersion) {
+            reachability = new ReachabilityIndex(this);
+        }
+        return reachability.isReachable(from, to);
+    }
+
+    /**
+     * Returns an immutable, array-based snapshot of this graph, for fast
+     * repeated traversal
+     *
+     * @return A CompactGraph holding the current nodes and edges of this graph
+     */
+    public CompactGraph freeze() {
+        return new CompactGraph(this);
+    }
+
+    /**
+     * Writes the current nodes and edges of this graph to a binary graph
+     * file, which readBinary or MappedGraph.open can load without parsing
+     *
+     * @param file
+     *            The file to write, which is replaced if it exists
+     * @throws IOException
+     *             If the file can't be written
+     */
+    public void writeBinary(Path file) throws IOException {
+        MappedGraph.write(freeze(), file);
+    }
+
+    /**
+     * Reads in a graph from a UTF-8 text file, which may be gzipped. The file
+     * is read and decoded ahead on a background thread while it is parsed.
+     *
+     * @param file
+     *            The file from which graph is read
+     * @return The resulting graph
+     * @throws IOException
+     *             If the file can't be read
+     */
+    public static Graph read(Path file) throws IOException {
+        Reader reader = ReadAheadReader.open(file);
+        try {
+            return read(reader);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Reads in a graph from a binary graph file written by writeBinary
+     *
+     * @param file
+     *            The graph file
+     * @return The resulting graph
+     * @throws IOException
+     *             If the file can't be read, or isn't a graph file
+     */
+    public static Graph readBinary(Path file) throws IOException {
+        return MappedGraph.open(file).toGraph();
+    }
+
     /**
      * Returns a printable representation of this graph
      */
     @Override
     public String toString() {
         StringBuilder str = new StringBuilder();
-        str.append(this.getValue().toString() + " {\n");
-
-        Set<Node> nodes = this.getNodes();
-        Iterator<Node> it = nodes.iterator();
-        while (it.hasNext()) {
-            Node node = it.next();
-            if (node.getOutpointingEdges().isEmpty() && node.getInpointingEdges().isEmpty()) {
-                str.append(node.toString() + '\n');
-            } else {
-                for (Edge edge : node.getOutpointingEdges()) {
-                    str.append(getOne(edge.origins).toString()); // Origin node
-                    str.append(edge.toString()); // Edge
-                    str.append(getOne(edge.destinations).toString() + '\n'); // Destination
-                                                                             // node
-                }
-            }
+        try {
+            write(str, false);
+        } catch (IOException e) {
+            throw new RuntimeException(e); // A StringBuilder doesn't throw
         }
-        str.append("}");
         return str.toString();
     }
 
     /**
-     * Prints this graph, using the same syntax as read
+     * Prints this graph, in the same form as toString
      */
     public void print() {
-        System.out.print(this);
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out));
+        try {
+            write(out, false);
+            out.flush();
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to print graph", e);
+        }
+    }
+
+    /**
+     * Writes this graph in the syntax read accepts, with one "from value ->
+     * to" line per edge and a line for each node without edges. Reading it
+     * back gives the same nodes and edges, as long as each value is a single
+     * token, as the values read gives are. The graph is written a piece at a
+     * time, so that nothing bigger than a node or edge value is built up in
+     * memory.
+     *
+     * @param out
+     *            Where the graph is written
+     * @throws IOException
+     *             If out can't be written to
+     */
+    public void write(Appendable out) throws IOException {
+        write(out, true);
+    }
+
+    /**
+     * Writes this graph in the syntax read accepts to a channel, as UTF-8,
+     * through a buffer of WRITE_BUFFER_SIZE characters. The channel is left
+     * open.
+     *
+     * @param channel
+     *            Where the graph is written
+     * @throws IOException
+     *             If the channel can't be written to
+     */
+    public void write(WritableByteChannel channel) throws IOException {
+        Writer out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), -1),
+                WRITE_BUFFER_SIZE);
+        write(out, true);
+        out.flush();
+    }
+
+    /**
+     * Writes this graph a piece at a time, either in the syntax read accepts
+     * or in the form of toString
+     */
+    private void write(Appendable out, boolean readable) throws IOException {
+        out.append(this.getValue().toString()).append(" {\n");
+        for (Node node : this.getNodeView()) {
+            String origin = node.getValue().toString();
+            Set<Edge> outpointing = node.getOutpointingEdgeView();
+            if (outpointing.isEmpty() && node.getInpointingEdgeView().isEmpty()) {
+                out.append(origin).append('\n');
+            } else {
+                for (Edge edge : outpointing) {
+                    out.append(origin); // Origin node
+                    String value = edge.getValue().toString();
+                    if (!readable) {
+                        out.append(" -- ").append(value).append(" --> "); // Edge
+                    } else if (value.isEmpty()) {
+                        out.append(" -> ");
+                    } else {
+                        out.append(' ').append(value).append(" -> ");
+                    }
+                    out.append(edge.getDestination().getValue().toString()).append('\n'); // Destination
+                                                                                         // node
+                }
+            }
+        }
+        out.append(readable ? "}\n" : "}");
     }
 
     /**
@@ -100,43 +364,127 @@ public class Graph extends Plex {
      * @return The resulting graph
      */
     public static Graph read(Reader reader) {
+        GraphBuilder builder = new GraphBuilder();
+        parse(reader, builder);
+        return builder.graph;
+    }
 
-        String previousPlex = "EOL"; // indicates whether the previous plex was
-                                     // a Node, an Edge, an Arrow (the ->
-                                     // symbol), or an EOL. Start as EOL
-        String edgeName = ""; // what the name of the current edge is
-        Node previousNode = null;
+    /**
+     * Reads changes into an existing graph. The changes use the same syntax
+     * as read, and the graph name is ignored. Each node named is looked up by
+     * value and reused if it exists, and each edge line adds an edge. A line
+     * starting with '!' deletes instead: "! from value -> to" deletes one
+     * edge from from to to with that value, and "! node" deletes a node and
+     * its edges. Deleting something that isn't there does nothing. The time
+     * taken depends on the size of the changes, not of the graph.
+     * 
+     * @param target
+     *            The graph to be changed
+     * @param delta
+     *            The reader object from which the changes are read
+     */
+    public static void readInto(Graph target, Reader delta) {
+        parse(delta, new DeltaApplier(target));
+    }
 
+    /**
+     * Parses a graph, passing its name, nodes and edges to a sink as they are
+     * read
+     * 
+     * @param reader
+     *            The reader object from which graph is read
+     * @param sink
+     *            What the graph is built in
+     */
+    static <N> void parse(Reader reader, GraphSink<N> sink) {
+        Tokenizer tokenizer = createTokenizer(reader);
+        parseHeader(tokenizer, sink);
+        parseBody(tokenizer, sink, false);
+    }
+
+    /**
+     * Creates a tokenizer for the graph syntax
+     * 
+     * @param reader
+     *            The reader object from which graph is read
+     * @return The tokenizer
+     */
+    static Tokenizer createTokenizer(Reader reader) {
         Set<String> keywords = new HashSet<String>();
         keywords.add("-");
-        Tokenizer tokenizer = new Tokenizer(reader, keywords);
-        Graph g = initializeGraph(tokenizer); // Initialises graph and extracts
+        return new Tokenizer(reader, keywords);
+    }
+
+    /**
+     * Parses the graph name and the opening brace, and starts the graph in
+     * the sink
+     * 
+     * @param tokenizer
+     *            The tokenizer from which graph is read
+     * @param sink
+     *            What the graph is built in
+     */
+    static <N> void parseHeader(Tokenizer tokenizer, GraphSink<N> sink) {
+        sink.begin(readGraphName(tokenizer)); // Initialises graph and extracts
                                               // graph name
 
         // 2nd token = "{"
-        Token brace = tokenizer.next();
-        if (!brace.getValue().equals("{"))
+        tokenizer.advance();
+        if (!tokenizer.contentEquals("{"))
             throw new RuntimeException("Invalid graph syntax");
+    }
+
+    /**
+     * Parses the lines of a graph after the opening brace, passing the nodes
+     * and edges to a sink as they are read
+     * 
+     * @param tokenizer
+     *            The tokenizer from which graph is read
+     * @param sink
+     *            What the graph is built in
+     * @param partial
+     *            true if the tokenizer only has some of the lines, so that
+     *            running out of input before the closing brace isn't an error
+     * @return true if the closing brace was read, false if the input ran out
+     *         first
+     */
+    @SuppressWarnings("unchecked")
+    static <N> boolean parseBody(Tokenizer tokenizer, GraphSink<N> sink, boolean partial) {
+
+        String previousPlex = "EOL"; // indicates whether the previous plex was
+                                     // a Node, an Edge, an Arrow (the ->
+                                     // symbol), or an EOL. Start as EOL
+        String edgeName = ""; // what the name of the current edge is
+        N previousNode = null;
+        DeltaSink<N> deleting = null; // the sink, if the current line starts
+                                      // with '!' and it takes deletions
 
         while (tokenizer.hasNext()) {
-            Token token = tokenizer.next();
+            tokenizer.advance();
 
             // Scenario 1: Brace to end graph input
-            if (token.getValue().equals("}"))
+            if (tokenizer.contentEquals("}")) {
+                endLine(deleting, previousPlex, previousNode);
                 break;
+            }
 
-            // Scenario 2: next token is EOI = invalid input
-            else if (token.getType() == TokenType.EOI)
+            // Scenario 2: next token is EOI = invalid input, unless there are
+            // more lines to come
+            else if (tokenizer.type() == TokenType.EOI) {
+                if (partial)
+                    return false;
                 throw new RuntimeException("Invalid graph syntax (2)");
+            }
 
             // Scenario 3: Token includes a '-'
-            else if (token.getType() == TokenType.KEYWORD) {
+            else if (tokenizer.type() == TokenType.KEYWORD) {
 
                 // Scenario 3a: Previous token was a edge, so we should be
                 // expecting a "->"
                 if (previousPlex.equals("Edge")) {
 
-                    if (tokenizer.next().getValue().equals(">")) {
+                    tokenizer.advance();
+                    if (tokenizer.contentEquals(">")) {
                         previousPlex = "Arrow";
                     }
                     // Scenario 3ai: Syntax error
@@ -147,27 +495,27 @@ public class Graph extends Plex {
 
                 // Scenario 3b: Previous token was a Node
                 else if (previousPlex.equals("Node")) {
-                    edgeName = token.getValue();
+                    edgeName = tokenizer.value();
 
-                    Token nextToken = tokenizer.next();
+                    TokenType nextType = tokenizer.advance();
 
                     // Scenario 3bi: Next token is a ">", so it's an Edge with
                     // an empty value
-                    if (nextToken.getValue().equals(">")) {
+                    if (tokenizer.contentEquals(">")) {
                         edgeName = "";
                         previousPlex = "Arrow";
                     }
 
                     // Scenario 3bii: Next token is a number, so it's an Edge
                     // with a negative number value
-                    else if (nextToken.getType() == TokenType.NUMBER) {
-                        edgeName = edgeName + nextToken.getValue();
+                    else if (nextType == TokenType.NUMBER) {
+                        edgeName = edgeName + tokenizer.value();
                         previousPlex = "Edge";
                     }
 
                     // Scenario 3biii: Next token is also a '-', which would be
                     // for a "->"
-                    else if (nextToken.getType() == TokenType.KEYWORD) {
+                    else if (nextType == TokenType.KEYWORD) {
                         tokenizer.pushBack();
                         previousPlex = "Edge";
                     }
@@ -180,19 +528,19 @@ public class Graph extends Plex {
                 // Scenario 3c: Previous token was an EOL or an arrow, so token
                 // is a Node
                 else if (previousPlex.equals("EOL") || previousPlex.equals("Arrow")) {
-                    String tempValue = token.getValue();
-                    Token nextToken = tokenizer.next();
+                    String tempValue = tokenizer.value();
+                    TokenType nextType = tokenizer.advance();
 
                     // Scenario 3ci: Next token is a number, so the Node is a
                     // negative number
-                    if (nextToken.getType() == TokenType.NUMBER) {
-                        tempValue = tempValue + nextToken.getValue();
-                        Node node = createNode(tempValue, g);
+                    if (nextType == TokenType.NUMBER) {
+                        tempValue = tempValue + tokenizer.value();
+                        N node = node(sink, deleting, tempValue);
 
                         // Scenario 3cia: previousPlex = Arrow, hence the Node
                         // is a toNode
                         if (previousPlex.equals("Arrow")) {
-                            Edge edge = new Edge(previousNode, edgeName, node);
+                            edge(sink, deleting, previousNode, edgeName, node);
                             previousPlex = "Node";
                             edgeName = "";
                             previousNode = null;
@@ -209,14 +557,14 @@ public class Graph extends Plex {
 
                     // Scenario 3cii: Next token is not a number, so Node = "-"
                     else {
-                        Node node = createNode(tempValue, g);
+                        N node = node(sink, deleting, tempValue);
                         tokenizer.pushBack();
 
                         // Scenario 3ciia: previousPlex = Arrow, hence the Node
                         // is a toNode
                         if (previousPlex.equals("Arrow")) {
 
-                            Edge edge = new Edge(previousNode, edgeName, node);
+                            edge(sink, deleting, previousNode, edgeName, node);
                             previousPlex = "Node";
                             edgeName = "";
                             previousNode = null;
@@ -241,8 +589,10 @@ public class Graph extends Plex {
 
             // Scenario 4: Token = EOL
 
-            else if (token.getType() == TokenType.EOL) {
+            else if (tokenizer.type() == TokenType.EOL) {
 
+                endLine(deleting, previousPlex, previousNode);
+                deleting = null;
                 previousPlex = "EOL";
                 previousNode = null;
                 edgeName = "";
@@ -251,11 +601,19 @@ public class Graph extends Plex {
             // Scenario 5: Token = normal string
 
             else {
+                // Deletion directive: previousPlex == EOL & token = '!' &
+                // the sink takes deletions
+
+                if (previousPlex.equals("EOL") && deleting == null && sink instanceof DeltaSink
+                        && tokenizer.contentEquals("!")) {
+                    deleting = (DeltaSink<N>) sink;
+                }
+
                 // Scenario 5a: previousNode == null & previousPlex == EOL ie
                 // token = fromNode
 
-                if (previousNode == null && previousPlex.equals("EOL")) {
-                    Node node = createNode(token.getValue(), g);
+                else if (previousNode == null && previousPlex.equals("EOL")) {
+                    N node = node(sink, deleting, tokenizer.value());
                     previousNode = node;
                     previousPlex = "Node";
                 }
@@ -263,15 +621,15 @@ public class Graph extends Plex {
                 // Scenario 5b: previousNode != null && previousPlex = "Node" ie
                 // token = Edge
                 else if (previousNode != null && previousPlex.equals("Node")) {
-                    edgeName = token.getValue();
+                    edgeName = tokenizer.value();
                     previousPlex = "Edge";
                 }
 
                 // Scenario 5c: previousNode != null && previousPlex = "Arrow"
                 // ie token = toNode
                 else if (previousNode != null && previousPlex.equals("Arrow")) {
-                    Node node = createNode(token.getValue(), g);
-                    Edge edge = new Edge(previousNode, edgeName, node);
+                    N node = node(sink, deleting, tokenizer.value());
+                    edge(sink, deleting, previousNode, edgeName, node);
                     previousPlex = "Node";
                     edgeName = "";
                     previousNode = null;
@@ -287,55 +645,133 @@ public class Graph extends Plex {
         // Check if final token is a "}"
 
         tokenizer.pushBack();
-        if (!tokenizer.next().getValue().equals("}"))
+        tokenizer.advance();
+        if (!tokenizer.contentEquals("}"))
             throw new RuntimeException("Invalid graph syntax (final token not })");
+        return true;
+    }
+
+    /**
+     * Returns a node from a sink, or finds it if the line is a deletion
+     */
+    private static <N> N node(GraphSink<N> sink, DeltaSink<N> deleting, String value) {
+        return deleting == null ? sink.node(value) : deleting.find(value);
+    }
+
+    /**
+     * Adds an edge to a sink, or deletes it if the line is a deletion
+     */
+    private static <N> void edge(GraphSink<N> sink, DeltaSink<N> deleting, N from, String value, N to) {
+        if (deleting == null) {
+            sink.edge(from, value, to);
+        } else {
+            deleting.deleteEdge(from, value, to);
+        }
+    }
 
-        return g;
+    /**
+     * At the end of a deletion line with a single node, deletes the node
+     */
+    private static <N> void endLine(DeltaSink<N> deleting, String previousPlex, N previousNode) {
+        if (deleting != null && previousNode != null && previousPlex.equals("Node")) {
+            deleting.deleteNode(previousNode);
+        }
     }
 
     /**
-     * Initialises graph and extracts graph name
+     * Extracts graph name
      * 
      * @param tokenizer
      *            The tokenizer object by which the graph is generated
-     * @return Graph with a graph name
+     * @return The graph name
      */
-    private static Graph initializeGraph(Tokenizer tokenizer) {
+    private static String readGraphName(Tokenizer tokenizer) {
         if (!tokenizer.hasNext())
             throw new RuntimeException("Unable to read from reader");
 
         // 1st token = graph name
 
-        Token graphName = tokenizer.next();
-        if (graphName.getType().equals(TokenType.EOI) || graphName.getType().equals(TokenType.EOL)
-                || graphName.getType().equals(TokenType.ERROR)) {
+        TokenType type = tokenizer.advance();
+        if (type.equals(TokenType.EOI) || type.equals(TokenType.EOL) || type.equals(TokenType.ERROR)) {
             throw new RuntimeException("Invalid graph syntax");
         }
-        return new Graph(graphName.getValue());
+        return tokenizer.value();
     }
 
     /**
-     * Returns a node that has the same value as the value parameter, or return
-     * a new node
-     * 
-     * @param value
-     *            The token's value
-     * @param g
-     *            The existing graph
-     * @return A node with the token's value
-     */
-    private static Node createNode(String value, Graph g) {
-        Set<Node> graphNodes = g.getNodes();
-        Node newNode = null;
-        for (Node node : graphNodes) {
-            if (value.equals(node.toString())) {
-                newNode = node;
-                break;
+     * Builds a Graph from the nodes and edges read by parse
+     */
+    private static class GraphBuilder implements GraphSink<Node> {
+        private Graph graph;
+
+        @Override
+        public void begin(String name) {
+            graph = new Graph(name);
+        }
+
+        @Override
+        public Node node(String value) {
+            return graph.getOrCreateNode(value);
+        }
+
+        @Override
+        public void edge(Node from, String value, Node to) {
+            new Edge(from, value, to);
+        }
+    }
+
+    /**
+     * Applies the changes read by parse to an existing Graph. Nodes are
+     * passed around by value, so that deletions of missing nodes can be
+     * ignored.
+     */
+    private static class DeltaApplier implements DeltaSink<String> {
+        private final Graph graph;
+
+        DeltaApplier(Graph graph) {
+            this.graph = graph;
+        }
+
+        @Override
+        public void begin(String name) {
+        }
+
+        @Override
+        public String node(String value) {
+            graph.getOrCreateNode(value);
+            return value;
+        }
+
+        @Override
+        public void edge(String from, String value, String to) {
+            new Edge(graph.findNode(from), value, graph.findNode(to));
+        }
+
+        @Override
+        public String find(String value) {
+            return value;
+        }
+
+        @Override
+        public void deleteEdge(String from, String value, String to) {
+            Node fromNode = graph.findNode(from);
+            Node toNode = graph.findNode(to);
+            if (fromNode == null || toNode == null)
+                return;
+            for (Edge edge : fromNode.getOutpointingEdgeView()) {
+                if (edge.getDestination() == toNode && edge.getValue().toString().equals(value)) {
+                    edge.delete();
+                    return;
+                }
             }
         }
-        if (newNode == null) {
-            newNode = new Node(value, g);
+
+        @Override
+        public void deleteNode(String value) {
+            Node node = graph.findNode(value);
+            if (node != null) {
+                node.delete();
+            }
         }
-        return newNode;
     }
 }
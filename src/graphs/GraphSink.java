@@ -0,0 +1,46 @@
+package graphs;
+
+/**
+ * Something that a graph can be read into. Graph.parse calls begin with the
+ * graph's name, then node for every node it reads (including repeated ones),
+ * and edge for every complete "from value -> to" statement. Parse only holds
+ * on to the two nodes most recently returned by node, so a sink may reuse
+ * what it returns after that.
+ *
+ * @author kevinlee
+ *
+ * @param <N>
+ *            What the sink uses to stand for a node
+ */
+interface GraphSink<N> {
+
+    /**
+     * Starts a new graph
+     *
+     * @param name
+     *            The name of the graph
+     */
+    void begin(String name);
+
+    /**
+     * Returns the node with the given value, creating it if it is new
+     *
+     * @param value
+     *            The value of the node
+     * @return The node
+     */
+    N node(String value);
+
+    /**
+     * Adds an edge
+     *
+     * @param from
+     *            The origin node
+     * @param value
+     *            The value of the edge
+     * @param to
+     *            The destination node
+     */
+    void edge(N from, String value, N to);
+
+}
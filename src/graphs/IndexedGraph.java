@@ -0,0 +1,79 @@
+package graphs;
+
+/**
+ * A read-only graph whose nodes are numbered densely from 0 to
+ * getNodeCount() - 1. The edges pointing out of each node are numbered from 0
+ * to getOutDegree(node) - 1. This is the view of a graph that the array-based
+ * searches in Mazes work on, whatever the graph is actually stored in.
+ *
+ * @author kevinlee
+ *
+ */
+public interface IndexedGraph {
+
+    /**
+     * Returns the number of nodes in this graph
+     *
+     * @return The number of nodes
+     */
+    int getNodeCount();
+
+    /**
+     * Returns the value of a node
+     *
+     * @param node
+     *            The id of the node
+     * @return The value of the node
+     */
+    Object getNodeValue(int node);
+
+    /**
+     * Returns the number of edges pointing out of a node
+     *
+     * @param node
+     *            The id of the node
+     * @return The number of outpointing edges
+     */
+    int getOutDegree(int node);
+
+    /**
+     * Returns the node that one of a node's outpointing edges points to
+     *
+     * @param node
+     *            The id of the origin node
+     * @param index
+     *            Which of the node's outpointing edges, from 0 to
+     *            getOutDegree(node) - 1
+     * @return The id of the destination node
+     */
+    int getNeighbour(int node, int index);
+
+    /**
+     * Returns the value of one of a node's outpointing edges
+     *
+     * @param node
+     *            The id of the origin node
+     * @param index
+     *            Which of the node's outpointing edges, from 0 to
+     *            getOutDegree(node) - 1
+     * @return The value of the edge
+     */
+    Object getEdgeValue(int node, int index);
+
+    /**
+     * Returns the start node of a maze: the first node whose value is "start",
+     * ignoring case
+     *
+     * @return The id of the start node, or -1 if there isn't one
+     */
+    int getStartNode();
+
+    /**
+     * Returns the finish node of a maze: the first node whose value is
+     * "finish", ignoring case
+     *
+     * @return The id of the finish node, or -1 if there isn't one
+     */
+    int getFinishNode();
+
+}
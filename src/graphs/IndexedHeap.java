@@ -0,0 +1,117 @@
+package graphs;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of node ids keyed by doubles, stored in primitive arrays.
+ * Each id is in the heap at most once, and its position is tracked so that
+ * its key can be lowered in place.
+ *
+ * @author kevinlee
+ *
+ */
+class IndexedHeap {
+
+    private final int[] heap;
+    private final int[] positions; // where each id is in heap, or -1
+    private final double[] keys;
+    private int size;
+
+    /**
+     * Creates an empty heap for ids from 0 to capacity - 1
+     *
+     * @param capacity
+     *            The number of ids
+     */
+    IndexedHeap(int capacity) {
+        heap = new int[capacity];
+        positions = new int[capacity];
+        keys = new double[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * Returns whether the heap is empty
+     *
+     * @return true if there are no ids in the heap
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Adds an id to the heap, or lowers its key if it is already there with a
+     * higher key
+     *
+     * @param id
+     *            The id
+     * @param key
+     *            The key of the id
+     */
+    void offer(int id, double key) {
+        int position = positions[id];
+        if (position < 0) {
+            position = size++;
+        } else if (key >= keys[id]) {
+            return;
+        }
+        keys[id] = key;
+        siftUp(position, id);
+    }
+
+    /**
+     * Removes the id with the lowest key
+     *
+     * @return The id
+     */
+    int poll() {
+        int id = heap[0];
+        positions[id] = -1;
+        int last = heap[--size];
+        if (size > 0) {
+            siftDown(0, last);
+        }
+        return id;
+    }
+
+    /**
+     * Moves an id up from a position until its parent's key is no higher
+     */
+    private void siftUp(int position, int id) {
+        double key = keys[id];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            int parentId = heap[parent];
+            if (keys[parentId] <= key)
+                break;
+            heap[position] = parentId;
+            positions[parentId] = position;
+            position = parent;
+        }
+        heap[position] = id;
+        positions[id] = position;
+    }
+
+    /**
+     * Moves an id down from a position until its children's keys are no lower
+     */
+    private void siftDown(int position, int id) {
+        double key = keys[id];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) {
+                child++;
+            }
+            int childId = heap[child];
+            if (key <= keys[childId])
+                break;
+            heap[position] = childId;
+            positions[childId] = position;
+            position = child;
+        }
+        heap[position] = id;
+        positions[id] = position;
+    }
+
+}
@@ -0,0 +1,335 @@
+package graphs;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A mutable graph whose nodes are labelled with ints. Nodes are given dense
+ * ids in the order they are added, and each node's outpointing edges are kept
+ * in growable int arrays, so no node labels are boxed and no objects are
+ * created per edge. Edge values are stored once each, and referred to by
+ * index.
+ *
+ * @author kevinlee
+ *
+ */
+public class IntGraph implements IndexedGraph {
+
+    private Object value;
+    private int nodeCount;
+    private int edgeCount;
+    private int[] labels = new int[16];
+    private IntIndex ids = new IntIndex();
+    private int[] degrees = new int[16];
+    private int[][] targets = new int[16][];
+    private int[][] edgeValues = new int[16][];
+    private List<Object> values = new ArrayList<Object>();
+    private Map<Object, Integer> valueIds = new HashMap<Object, Integer>();
+
+    /**
+     * Creates an empty graph with the given value
+     *
+     * @param value
+     *            The name of the graph
+     */
+    public IntGraph(Object value) {
+        this.value = value;
+    }
+
+    /**
+     * Returns the value (name) of this graph
+     *
+     * @return The value of the graph
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the id of the node with the given label, adding the node if
+     * there isn't one
+     *
+     * @param label
+     *            The label of the node
+     * @return The id of the node
+     */
+    public int addNode(int label) {
+        int node = ids.get(label);
+        if (node >= 0)
+            return node;
+        if (nodeCount == labels.length) {
+            int capacity = nodeCount * 2;
+            labels = Arrays.copyOf(labels, capacity);
+            degrees = Arrays.copyOf(degrees, capacity);
+            targets = Arrays.copyOf(targets, capacity);
+            edgeValues = Arrays.copyOf(edgeValues, capacity);
+        }
+        node = nodeCount++;
+        labels[node] = label;
+        ids.put(label, node);
+        return node;
+    }
+
+    /**
+     * Returns the id of the node with the given label
+     *
+     * @param label
+     *            The label of the node
+     * @return The id of the node, or -1 if there isn't one
+     */
+    public int findNode(int label) {
+        return ids.get(label);
+    }
+
+    /**
+     * Returns the label of a node
+     *
+     * @param node
+     *            The id of the node
+     * @return The label of the node
+     */
+    public int getLabel(int node) {
+        return labels[node];
+    }
+
+    /**
+     * Adds an edge with the given value between the nodes with the given
+     * labels, adding the nodes if necessary
+     *
+     * @param from
+     *            The label of the origin node
+     * @param value
+     *            The value of the edge
+     * @param to
+     *            The label of the destination node
+     */
+    public void addEdge(int from, Object value, int to) {
+        int fromNode = addNode(from);
+        int toNode = addNode(to);
+        int degree = degrees[fromNode];
+        if (targets[fromNode] == null) {
+            targets[fromNode] = new int[2];
+            edgeValues[fromNode] = new int[2];
+        } else if (degree == targets[fromNode].length) {
+            targets[fromNode] = Arrays.copyOf(targets[fromNode], degree * 2);
+            edgeValues[fromNode] = Arrays.copyOf(edgeValues[fromNode], degree * 2);
+        }
+        targets[fromNode][degree] = toNode;
+        edgeValues[fromNode][degree] = valueId(value);
+        degrees[fromNode] = degree + 1;
+        edgeCount++;
+    }
+
+    /**
+     * Removes one edge with the given value between the nodes with the given
+     * labels. The order of the origin node's remaining edges may change.
+     *
+     * @param from
+     *            The label of the origin node
+     * @param value
+     *            The value of the edge
+     * @param to
+     *            The label of the destination node
+     * @return true if an edge was removed
+     */
+    public boolean removeEdge(int from, Object value, int to) {
+        int fromNode = ids.get(from);
+        int toNode = ids.get(to);
+        Integer valueId = valueIds.get(value);
+        if (fromNode < 0 || toNode < 0 || valueId == null)
+            return false;
+        int last = degrees[fromNode] - 1;
+        for (int i = 0; i <= last; i++) {
+            if (targets[fromNode][i] == toNode && edgeValues[fromNode][i] == valueId) {
+                targets[fromNode][i] = targets[fromNode][last];
+                edgeValues[fromNode][i] = edgeValues[fromNode][last];
+                degrees[fromNode] = last;
+                edgeCount--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of edges in this graph
+     *
+     * @return The number of edges
+     */
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    @Override
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Returns the label of a node, boxed. Use getLabel to avoid boxing.
+     */
+    @Override
+    public Object getNodeValue(int node) {
+        return labels[node];
+    }
+
+    @Override
+    public int getOutDegree(int node) {
+        return degrees[node];
+    }
+
+    @Override
+    public int getNeighbour(int node, int index) {
+        return targets[node][index];
+    }
+
+    @Override
+    public Object getEdgeValue(int node, int index) {
+        return values.get(edgeValues[node][index]);
+    }
+
+    /**
+     * Returns -1, as no int label is "start"
+     */
+    @Override
+    public int getStartNode() {
+        return -1;
+    }
+
+    /**
+     * Returns -1, as no int label is "finish"
+     */
+    @Override
+    public int getFinishNode() {
+        return -1;
+    }
+
+    /**
+     * Returns the index of an edge value, storing it if it is new
+     */
+    private int valueId(Object value) {
+        Integer id = valueIds.get(value);
+        if (id == null) {
+            id = values.size();
+            values.add(value);
+            valueIds.put(value, id);
+        }
+        return id;
+    }
+
+    /**
+     * Returns a Graph with the same nodes and edges. Node values are the
+     * labels as strings, as Graph.read would give them.
+     *
+     * @return The new Graph
+     */
+    public Graph toGraph() {
+        Graph g = new Graph(value);
+        Node[] nodes = new Node[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            nodes[node] = new Node(String.valueOf(labels[node]), g);
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            for (int i = 0; i < degrees[node]; i++) {
+                new Edge(nodes[node], values.get(edgeValues[node][i]), nodes[targets[node][i]]);
+            }
+        }
+        return g;
+    }
+
+    /**
+     * Creates an IntGraph with the same nodes and edges as a Graph
+     *
+     * @param g
+     *            A graph whose node values are all integers (or strings of
+     *            integers)
+     * @return The new IntGraph
+     * @throws IllegalArgumentException
+     *             If a node value isn't an integer
+     */
+    public static IntGraph fromGraph(Graph g) {
+        IntGraph intGraph = new IntGraph(g.getValue());
+        for (Node node : g.getNodeView()) {
+            intGraph.addNode(toLabel(node.getValue()));
+        }
+        for (Node node : g.getNodeView()) {
+            int from = toLabel(node.getValue());
+            for (Edge edge : node.getOutpointingEdgeView()) {
+                intGraph.addEdge(from, edge.getValue(), toLabel(edge.getDestination().getValue()));
+            }
+        }
+        return intGraph;
+    }
+
+    /**
+     * Reads in a graph whose node values are all integers, using the same
+     * syntax as Graph.read, without building a Graph first
+     *
+     * @param reader
+     *            The reader object from which graph is read
+     * @return The resulting graph
+     * @throws IllegalArgumentException
+     *             If a node value isn't an integer
+     */
+    public static IntGraph read(Reader reader) {
+        IntGraphBuilder builder = new IntGraphBuilder();
+        Graph.parse(reader, builder);
+        return builder.graph;
+    }
+
+    /**
+     * Converts a node value to a label
+     */
+    private static int toLabel(Object value) {
+        if (value instanceof Integer)
+            return (Integer) value;
+        try {
+            return Integer.parseInt(value.toString());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Node value is not an integer: " + value);
+        }
+    }
+
+    /**
+     * Builds an IntGraph from the nodes and edges read by Graph.parse. Parse
+     * only holds on to the last two nodes it was given, the origin and
+     * destination of an edge, so the builder hands out two reused holders in
+     * turn instead of boxing each label.
+     */
+    private static class IntGraphBuilder implements GraphSink<Label> {
+        private IntGraph graph;
+        private final Label[] labels = { new Label(), new Label() };
+        private int next; // which holder node gives out next
+
+        @Override
+        public void begin(String name) {
+            graph = new IntGraph(name);
+        }
+
+        @Override
+        public Label node(String value) {
+            Label label = labels[next];
+            next ^= 1;
+            label.value = toLabel(value);
+            graph.addNode(label.value);
+            return label;
+        }
+
+        @Override
+        public void edge(Label from, String value, Label to) {
+            graph.addEdge(from.value, value, to.value);
+        }
+    }
+
+    /**
+     * A node label, as handed to Graph.parse by IntGraphBuilder
+     */
+    private static class Label {
+        private int value;
+    }
+
+}
@@ -0,0 +1,99 @@
+package graphs;
+
+/**
+ * A hash map from int keys to non-negative int values, stored in two
+ * primitive arrays with open addressing so that no keys or values are boxed.
+ *
+ * @author kevinlee
+ *
+ */
+class IntIndex {
+
+    private int[] keys;
+    private int[] values; // value + 1, or 0 for an empty slot
+    private int size;
+
+    /**
+     * Creates an empty index
+     */
+    IntIndex() {
+        keys = new int[16];
+        values = new int[16];
+    }
+
+    /**
+     * Returns the value for a key
+     *
+     * @param key
+     *            The key
+     * @return The value stored for the key, or -1 if there is none
+     */
+    int get(int key) {
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask;; slot = (slot + 1) & mask) {
+            if (values[slot] == 0)
+                return -1;
+            if (keys[slot] == key)
+                return values[slot] - 1;
+        }
+    }
+
+    /**
+     * Stores a value for a key, replacing any value already stored
+     *
+     * @param key
+     *            The key
+     * @param value
+     *            The value, which must not be negative
+     */
+    void put(int key, int value) {
+        if (value < 0)
+            throw new IllegalArgumentException("Negative value");
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+        }
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (values[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (values[slot] == 0)
+            size++;
+        keys[slot] = key;
+        values[slot] = value + 1;
+    }
+
+    /**
+     * Returns the number of keys in the index
+     *
+     * @return The number of keys
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Doubles the table and re-inserts every key
+     */
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        size = 0;
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldValues[slot] != 0) {
+                put(oldKeys[slot], oldValues[slot] - 1);
+            }
+        }
+    }
+
+    /**
+     * Spreads the bits of a key, so that sequential keys don't cluster
+     */
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+}
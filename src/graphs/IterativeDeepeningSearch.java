@@ -0,0 +1,144 @@
+package graphs;
+
+import java.util.Arrays;
+
+/**
+ * A depth-first-search that is run again and again with a growing depth
+ * limit, so that it finds a shortest path (in number of edges) while only
+ * remembering the path it is on. The search path is kept in two int arrays
+ * that grow with the depth limit, so the memory used doesn't depend on the
+ * size of the graph. In exchange, nodes near the start are visited again on
+ * every round, and a node can be visited once for every path that reaches it.
+ *
+ * After a successful search, the path found can be read with getDepth,
+ * getPathNode and getPathEdge.
+ *
+ * @author kevinlee
+ *
+ */
+public class IterativeDeepeningSearch {
+
+    private final IndexedGraph graph;
+    private int[] nodes = new int[0]; // the nodes on the search path
+    private int[] nextEdges = new int[0]; // one more than the index of the
+                                          // edge taken out of each node
+    private int depth = -1;
+
+    /**
+     * Creates a search of a graph
+     *
+     * @param g
+     *            The graph to search
+     */
+    public IterativeDeepeningSearch(IndexedGraph g) {
+        this.graph = g;
+    }
+
+    /**
+     * Searches for a shortest path between two nodes with at most maxDepth
+     * edges
+     *
+     * @param start
+     *            The id of the node to search from
+     * @param finish
+     *            The id of the node to search for
+     * @param maxDepth
+     *            The most edges the path may have
+     * @return true if a path was found
+     */
+    public boolean search(int start, int finish, int maxDepth) {
+        ensureCapacity(1);
+        nodes[0] = start;
+        depth = 0;
+        if (start == finish)
+            return true;
+
+        for (int limit = 1; limit <= maxDepth; limit++) {
+            ensureCapacity(limit + 1);
+            boolean cutOff = false; // whether any path was cut short by the
+                                    // limit
+            depth = 0;
+            nextEdges[0] = 0;
+            while (depth >= 0) {
+                int node = nodes[depth];
+                if (nextEdges[depth] == graph.getOutDegree(node)) { // Back up
+                    depth--;
+                    continue;
+                }
+                int next = graph.getNeighbour(node, nextEdges[depth]++);
+                if (next == finish) {
+                    nodes[++depth] = next;
+                    return true;
+                }
+                if (isOnPath(next))
+                    continue;
+                if (depth + 1 == limit) {
+                    cutOff = true;
+                } else {
+                    nodes[++depth] = next;
+                    nextEdges[depth] = 0;
+                }
+            }
+            if (!cutOff) // Every path from start was followed to its end
+                break;
+        }
+        depth = -1;
+        return false;
+    }
+
+    /**
+     * Makes room for a search path of the given number of nodes
+     */
+    private void ensureCapacity(int length) {
+        if (nodes.length < length) {
+            nodes = Arrays.copyOf(nodes, Math.max(length, 2 * nodes.length));
+            nextEdges = Arrays.copyOf(nextEdges, nodes.length);
+        }
+    }
+
+    /**
+     * Determines whether a node is already on the search path, so that
+     * following it again would go round a cycle
+     */
+    private boolean isOnPath(int node) {
+        for (int i = 0; i <= depth; i++) {
+            if (nodes[i] == node)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of edges in the path found by the last search
+     *
+     * @return The number of edges, or -1 if the last search failed
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns a node on the path found by the last search
+     *
+     * @param index
+     *            Which node, from 0 (the start node) to getDepth() (the
+     *            finish node)
+     * @return The id of the node
+     */
+    public int getPathNode(int index) {
+        return nodes[index];
+    }
+
+    /**
+     * Returns which outpointing edge of a node on the path the path follows
+     *
+     * @param index
+     *            Which node, from 0 (the start node) to getDepth() - 1
+     * @return The index of the edge, from 0 to
+     *         getOutDegree(getPathNode(index)) - 1
+     */
+    public int getPathEdge(int index) {
+        return nextEdges[index] - 1;
+    }
+
+}
@@ -0,0 +1,402 @@
+package graphs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A read-only graph kept in a memory-mapped file rather than on the heap.
+ * Opening a file only maps it; the operating system pages the adjacency
+ * arrays and values in as a traversal touches them.
+ *
+ * The file holds a header followed by these sections, each written as big
+ * endian values:
+ * <ul>
+ * <li>offsets: nodeCount + 1 ints, where the edges out of node n are numbered
+ * offsets[n] to offsets[n + 1] - 1</li>
+ * <li>targets: edgeCount ints, the destination node of each edge</li>
+ * <li>edge values: edgeCount ints, indexes into the string table</li>
+ * <li>node values: nodeCount ints, indexes into the string table</li>
+ * <li>string offsets: stringCount + 1 longs, byte offsets into the string
+ * data</li>
+ * <li>string data: the UTF-8 bytes of each distinct value</li>
+ * </ul>
+ * Node and edge values are stored as their toString(), each distinct string
+ * only once. Each section is mapped separately, so it must be under 2GB.
+ * A mapped graph can be traversed where it is, or turned into an ordinary
+ * Graph with toGraph.
+ *
+ * @author kevinlee
+ *
+ */
+public class MappedGraph implements IndexedGraph {
+
+    /** The first four bytes of a graph file, "GRPH". */
+    static final int MAGIC = 0x47525048;
+
+    /** The version of the file format written by this class. */
+    static final int VERSION = 1;
+
+    /** The number of bytes in the header. */
+    private static final int HEADER_SIZE = 6 * 4 + 6 * 8;
+
+    /** The names of the start and finish nodes, as lower case ASCII. */
+    private static final byte[] START = { 's', 't', 'a', 'r', 't' };
+    private static final byte[] FINISH = { 'f', 'i', 'n', 'i', 's', 'h' };
+
+    private final int nodeCount;
+    private final int edgeCount;
+    private final int valueString;
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final IntBuffer edgeValues;
+    private final IntBuffer nodeValues;
+    private final LongBuffer stringOffsets;
+    private final MappedByteBuffer stringData;
+    private int startNode = -2; // -2 until it has been looked up
+    private int finishNode = -2;
+
+    /**
+     * Maps the sections of an open graph file
+     */
+    private MappedGraph(FileChannel channel) throws IOException {
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+        if (header.getInt() != MAGIC)
+            throw new IOException("Not a graph file");
+        int version = header.getInt();
+        if (version != VERSION)
+            throw new IOException("Unsupported graph file version " + version);
+        nodeCount = header.getInt();
+        edgeCount = header.getInt();
+        int stringCount = header.getInt();
+        valueString = header.getInt();
+        offsets = mapInts(channel, header.getLong(), nodeCount + 1);
+        targets = mapInts(channel, header.getLong(), edgeCount);
+        edgeValues = mapInts(channel, header.getLong(), edgeCount);
+        nodeValues = mapInts(channel, header.getLong(), nodeCount);
+        long stringOffsetsPosition = header.getLong();
+        stringOffsets = channel.map(FileChannel.MapMode.READ_ONLY, stringOffsetsPosition, 8L * (stringCount + 1))
+                .asLongBuffer();
+        long stringDataPosition = header.getLong();
+        stringData = channel.map(FileChannel.MapMode.READ_ONLY, stringDataPosition, stringOffsets.get(stringCount));
+    }
+
+    /**
+     * Opens a graph file written by write. The file is closed as soon as this
+     * returns, but the mapping stays valid.
+     *
+     * @param file
+     *            The graph file
+     * @return The mapped graph
+     * @throws IOException
+     *             If the file can't be read, or isn't a graph file
+     */
+    public static MappedGraph open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new MappedGraph(channel);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes a graph snapshot to a file that open can map
+     *
+     * @param g
+     *            The graph to be written
+     * @param file
+     *            The file to write, which is replaced if it exists
+     * @throws IOException
+     *             If the file can't be written
+     */
+    public static void write(CompactGraph g, Path file) throws IOException {
+        int nodeCount = g.getNodeCount();
+        int edgeCount = g.getEdgeCount();
+
+        // Intern the values
+        Map<String, Integer> stringIds = new HashMap<String, Integer>();
+        List<byte[]> strings = new ArrayList<byte[]>();
+        int valueString = intern(g.getValue(), stringIds, strings);
+        int[] nodeValues = new int[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            nodeValues[node] = intern(g.getNodeValue(node), stringIds, strings);
+        }
+        int[] edgeValues = new int[edgeCount];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            edgeValues[edge] = intern(g.getEdgeValue(edge), stringIds, strings);
+        }
+
+        long offsetsPosition = HEADER_SIZE;
+        long targetsPosition = offsetsPosition + 4L * (nodeCount + 1);
+        long edgeValuesPosition = targetsPosition + 4L * edgeCount;
+        long nodeValuesPosition = edgeValuesPosition + 4L * edgeCount;
+        long stringOffsetsPosition = nodeValuesPosition + 4L * nodeCount;
+        long stringDataPosition = stringOffsetsPosition + 8L * (strings.size() + 1);
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            SectionWriter out = new SectionWriter(channel);
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putInt(nodeCount);
+            out.putInt(edgeCount);
+            out.putInt(strings.size());
+            out.putInt(valueString);
+            out.putLong(offsetsPosition);
+            out.putLong(targetsPosition);
+            out.putLong(edgeValuesPosition);
+            out.putLong(nodeValuesPosition);
+            out.putLong(stringOffsetsPosition);
+            out.putLong(stringDataPosition);
+
+            for (int node = 0; node <= nodeCount; node++) {
+                out.putInt(g.getFirstEdge(node));
+            }
+            for (int edge = 0; edge < edgeCount; edge++) {
+                out.putInt(g.getTarget(edge));
+            }
+            for (int edge = 0; edge < edgeCount; edge++) {
+                out.putInt(edgeValues[edge]);
+            }
+            for (int node = 0; node < nodeCount; node++) {
+                out.putInt(nodeValues[node]);
+            }
+            long stringOffset = 0;
+            out.putLong(stringOffset);
+            for (byte[] string : strings) {
+                stringOffset += string.length;
+                out.putLong(stringOffset);
+            }
+            for (byte[] string : strings) {
+                out.put(string);
+            }
+            out.flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Returns the string table index of a value, adding it if it is new
+     */
+    private static int intern(Object value, Map<String, Integer> stringIds, List<byte[]> strings) {
+        String string = value.toString();
+        Integer id = stringIds.get(string);
+        if (id == null) {
+            id = strings.size();
+            stringIds.put(string, id);
+            strings.add(string.getBytes(StandardCharsets.UTF_8));
+        }
+        return id;
+    }
+
+    /**
+     * Maps a section of ints
+     */
+    private static IntBuffer mapInts(FileChannel channel, long position, int count) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, 4L * count).asIntBuffer();
+    }
+
+    /**
+     * Returns an entry of the string table
+     */
+    private String getString(int id) {
+        int start = (int) stringOffsets.get(id);
+        int end = (int) stringOffsets.get(id + 1);
+        byte[] bytes = new byte[end - start];
+        ByteBuffer data = stringData.duplicate();
+        data.position(start);
+        data.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Builds a Graph with the same nodes and edges. Each section is read in
+     * one bulk copy, and each distinct string is decoded only once, so equal
+     * node and edge values share one String. Values are strings, as
+     * Graph.read would give them.
+     *
+     * @return The new Graph
+     */
+    public Graph toGraph() {
+        String[] strings = new String[stringOffsets.capacity() - 1];
+        for (int id = 0; id < strings.length; id++) {
+            strings[id] = getString(id);
+        }
+        int[] offsetArray = new int[nodeCount + 1];
+        int[] targetArray = new int[edgeCount];
+        int[] edgeValueArray = new int[edgeCount];
+        int[] nodeValueArray = new int[nodeCount];
+        offsets.duplicate().get(offsetArray);
+        targets.duplicate().get(targetArray);
+        edgeValues.duplicate().get(edgeValueArray);
+        nodeValues.duplicate().get(nodeValueArray);
+
+        Graph g = new Graph(strings[valueString]);
+        Node[] nodes = new Node[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            nodes[node] = new Node(strings[nodeValueArray[node]], g);
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            for (int edge = offsetArray[node]; edge < offsetArray[node + 1]; edge++) {
+                new Edge(nodes[node], strings[edgeValueArray[edge]], nodes[targetArray[edge]]);
+            }
+        }
+        return g;
+    }
+
+    /**
+     * Returns the value (name) of the graph
+     *
+     * @return The value of the graph
+     */
+    public Object getValue() {
+        return getString(valueString);
+    }
+
+    @Override
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Returns the number of edges in this graph
+     *
+     * @return The number of edges
+     */
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    @Override
+    public Object getNodeValue(int node) {
+        return getString(nodeValues.get(node));
+    }
+
+    @Override
+    public int getOutDegree(int node) {
+        return offsets.get(node + 1) - offsets.get(node);
+    }
+
+    @Override
+    public int getNeighbour(int node, int index) {
+        return targets.get(offsets.get(node) + index);
+    }
+
+    @Override
+    public Object getEdgeValue(int node, int index) {
+        return getString(edgeValues.get(offsets.get(node) + index));
+    }
+
+    @Override
+    public int getStartNode() {
+        if (startNode == -2) {
+            startNode = findNode(START);
+        }
+        return startNode;
+    }
+
+    @Override
+    public int getFinishNode() {
+        if (finishNode == -2) {
+            finishNode = findNode(FINISH);
+        }
+        return finishNode;
+    }
+
+    /**
+     * Returns the first node whose value is a name, ignoring case, or -1. The
+     * string table entries are compared as bytes, so nothing is decoded, and
+     * then the nodes are compared by string id.
+     */
+    private int findNode(byte[] name) {
+        int[] matches = new int[1];
+        int matchCount = 0;
+        int stringCount = stringOffsets.capacity() - 1;
+        for (int id = 0; id < stringCount; id++) {
+            int start = (int) stringOffsets.get(id);
+            if ((int) stringOffsets.get(id + 1) - start != name.length)
+                continue;
+            int i = 0;
+            while (i < name.length && (stringData.get(start + i) | 0x20) == name[i]) {
+                i++; // name is all letters, so this only folds their case
+            }
+            if (i == name.length) {
+                if (matchCount == matches.length) {
+                    matches = Arrays.copyOf(matches, matchCount * 2);
+                }
+                matches[matchCount++] = id;
+            }
+        }
+        if (matchCount == 0)
+            return -1;
+        for (int node = 0; node < nodeCount; node++) {
+            int id = nodeValues.get(node);
+            for (int i = 0; i < matchCount; i++) {
+                if (matches[i] == id)
+                    return node;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Writes values to a file channel through a fixed-size buffer
+     */
+    private static class SectionWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+
+        SectionWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void putInt(int value) throws IOException {
+            ensureRoom(4);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensureRoom(8);
+            buffer.putLong(value);
+        }
+
+        void put(byte[] bytes) throws IOException {
+            int written = 0;
+            while (written < bytes.length) {
+                ensureRoom(1);
+                int length = Math.min(buffer.remaining(), bytes.length - written);
+                buffer.put(bytes, written, length);
+                written += length;
+            }
+        }
+
+        private void ensureRoom(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+}
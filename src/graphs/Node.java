@@ -22,6 +22,8 @@ public class Node extends Plex {
     public Node(Object value, Graph g) {
         super(value);
         this.addContainer(g);
+        g.indexNode(this);
+        g.structureChanged();
     }
 
     /**
@@ -37,7 +39,29 @@ public class Node extends Plex {
         for (Edge edge : outpointingEdges) {
             edge.delete();
         }
-        this.removeContainer(this.getGraph());
+        Graph graph = this.getGraph();
+        graph.unindexNode(this);
+        this.removeContainer(graph);
+        graph.structureChanged();
+    }
+
+    /**
+     * Changes the value of this node, keeping its graph's value index up to
+     * date
+     * 
+     * @param value
+     *            The new value of the node
+     */
+    @Override
+    public void setValue(Object value) {
+        Graph graph = this.getGraph();
+        if (graph == null) {
+            super.setValue(value);
+            return;
+        }
+        graph.unindexNode(this);
+        super.setValue(value);
+        graph.indexNode(this);
     }
 
     /**
@@ -46,7 +70,7 @@ public class Node extends Plex {
      * @return the graph that this node is on
      */
     public Graph getGraph() {
-        Plex container = Plex.getOne(containers);
+        Plex container = this.getOneContainer();
         return (Graph) container;
     }
 
@@ -56,7 +80,7 @@ public class Node extends Plex {
      * @return Set of outpointing edges from this node
      */
     public Set<Edge> getOutpointingEdges() {
-        Set<Plex> plexDestinations = this.destinations;
+        Set<Plex> plexDestinations = this.getDestinations();
         Set<Edge> edgeDestination = new HashSet<Edge>();
         for (Plex plex : plexDestinations) {
             edgeDestination.add((Edge) plex);
@@ -71,7 +95,7 @@ public class Node extends Plex {
      * @return Set of inpointing edges to this node
      */
     public Set<Edge> getInpointingEdges() {
-        Set<Plex> plexDestinations = this.origins;
+        Set<Plex> plexDestinations = this.getOrigins();
         Set<Edge> edgeOrigins = new HashSet<Edge>();
         for (Plex plex : plexDestinations) {
             edgeOrigins.add((Edge) plex);
@@ -79,6 +103,28 @@ public class Node extends Plex {
         return edgeOrigins;
     }
 
+    /**
+     * Returns a read-only, live view of the edges pointing out from this node.
+     * Unlike getOutpointingEdges, this does not copy anything, but the view
+     * must not be iterated over while edges are being added or deleted.
+     * 
+     * @return View of the outpointing edges from this node
+     */
+    public Set<Edge> getOutpointingEdgeView() {
+        return new PlexView<Edge>(this.getDestinations(), Edge.class);
+    }
+
+    /**
+     * Returns a read-only, live view of the edges pointing in to this node.
+     * Unlike getInpointingEdges, this does not copy anything, but the view
+     * must not be iterated over while edges are being added or deleted.
+     * 
+     * @return View of the inpointing edges to this node
+     */
+    public Set<Edge> getInpointingEdgeView() {
+        return new PlexView<Edge>(this.getOrigins(), Edge.class);
+    }
+
     /**
      * Returns a printable representation of this node
      */
@@ -0,0 +1,259 @@
+package graphs;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A breadth-first search of a whole snapshot, which finds how many edges each
+ * node is from a source node using several threads. Each level of the search
+ * is split into fork-join tasks. Nodes are marked as visited in an atomic
+ * bitset, so that each is claimed by exactly one task.
+ *
+ * A level is searched top-down (from the frontier along outpointing edges)
+ * while the frontier is small. When the edges out of the frontier outnumber
+ * those left to explore, levels are searched bottom-up instead: each
+ * unvisited node looks along its inpointing edges for a node in the frontier,
+ * and stops at the first one it finds.
+ *
+ * @author kevinlee
+ *
+ */
+public class ParallelBreadthFirstSearch {
+
+    /** The number of frontier nodes each top-down task looks at. */
+    private static final int TOP_DOWN_GRAIN = 1024;
+
+    /** The number of nodes each bottom-up task looks at. */
+    private static final int BOTTOM_UP_GRAIN = 64 * 64;
+
+    /**
+     * Search bottom-up when the frontier's edges are more than this fraction
+     * of the unexplored edges.
+     */
+    private static final int TO_BOTTOM_UP = 14;
+
+    /**
+     * Search top-down again when the frontier has fewer than this fraction of
+     * the nodes.
+     */
+    private static final int TO_TOP_DOWN = 24;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a search that runs on the common pool
+     */
+    public ParallelBreadthFirstSearch() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a search that runs on the given pool
+     *
+     * @param pool
+     *            The pool the levels are searched on
+     */
+    public ParallelBreadthFirstSearch(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Finds the number of edges on a shortest path from a source node to
+     * every node
+     *
+     * @param g
+     *            The graph to search
+     * @param source
+     *            The id of the node to search from
+     * @return The distance of each node from the source, by id, or -1 for
+     *         nodes that can't be reached
+     */
+    public int[] search(CompactGraph g, int source) {
+        int nodeCount = g.getNodeCount();
+        Level level = new Level(g);
+        level.distances[source] = 0;
+        level.visit(source);
+
+        int[] frontier = new int[] { source };
+        long frontierEdges = g.getOutDegree(source);
+        long unexploredEdges = g.getEdgeCount() - frontierEdges;
+        boolean bottomUp = false;
+
+        for (int depth = 0; frontier.length > 0; depth++) {
+            if (!bottomUp && frontierEdges > unexploredEdges / TO_BOTTOM_UP) {
+                bottomUp = true;
+                g.getInDegree(source); // Builds the inpointing edges once,
+                                       // before the tasks need them
+            } else if (bottomUp && frontier.length < nodeCount / TO_TOP_DOWN) {
+                bottomUp = false;
+            }
+
+            int size = bottomUp ? nodeCount : frontier.length;
+            int grain = bottomUp ? BOTTOM_UP_GRAIN : TOP_DOWN_GRAIN;
+            int chunks = (size + grain - 1) / grain;
+            level.start(depth, frontier, bottomUp, grain, chunks);
+            pool.invoke(new LevelTask(level, 0, chunks));
+
+            // Join the nodes found by each chunk into the next frontier
+            int total = 0;
+            frontierEdges = 0;
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                total += level.found[chunk].length;
+                frontierEdges += level.foundEdges[chunk];
+            }
+            frontier = new int[total];
+            int position = 0;
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                System.arraycopy(level.found[chunk], 0, frontier, position, level.found[chunk].length);
+                position += level.found[chunk].length;
+            }
+            unexploredEdges -= frontierEdges;
+        }
+        return level.distances;
+    }
+
+    /**
+     * The state shared by the tasks searching one level
+     */
+    private static class Level {
+        private final CompactGraph graph;
+        private final int[] distances;
+        private final AtomicLongArray visited;
+
+        private int depth;
+        private int[] frontier;
+        private boolean bottomUp;
+        private int grain;
+        private int[][] found; // the nodes each chunk adds to the next level
+        private long[] foundEdges; // the out-degrees of those nodes
+
+        Level(CompactGraph graph) {
+            this.graph = graph;
+            this.distances = new int[graph.getNodeCount()];
+            Arrays.fill(distances, -1);
+            this.visited = new AtomicLongArray((graph.getNodeCount() + 63) >>> 6);
+        }
+
+        /**
+         * Sets up the search of the next level
+         */
+        void start(int depth, int[] frontier, boolean bottomUp, int grain, int chunks) {
+            this.depth = depth;
+            this.frontier = frontier;
+            this.bottomUp = bottomUp;
+            this.grain = grain;
+            this.found = new int[chunks][];
+            this.foundEdges = new long[chunks];
+        }
+
+        /**
+         * Marks a node as visited
+         *
+         * @return true if this call visited it, false if it already was
+         */
+        boolean visit(int node) {
+            int word = node >>> 6;
+            long bit = 1L << node;
+            while (true) {
+                long bits = visited.get(word);
+                if ((bits & bit) != 0)
+                    return false;
+                if (visited.compareAndSet(word, bits, bits | bit))
+                    return true;
+            }
+        }
+
+        /**
+         * Returns whether a node has been visited
+         */
+        boolean isVisited(int node) {
+            return (visited.get(node >>> 6) & (1L << node)) != 0;
+        }
+
+        /**
+         * Searches one chunk of the level
+         */
+        void search(int chunk) {
+            int[] next = new int[16];
+            int count = 0;
+            long edges = 0;
+            int start = chunk * grain;
+            if (bottomUp) {
+                int end = Math.min(start + grain, distances.length);
+                for (int node = start; node < end; node++) {
+                    if (isVisited(node))
+                        continue;
+                    int inDegree = graph.getInDegree(node);
+                    for (int i = 0; i < inDegree; i++) {
+                        if (distances[graph.getPredecessor(node, i)] == depth) {
+                            visit(node);
+                            distances[node] = depth + 1;
+                            next = add(next, count++, node);
+                            edges += graph.getOutDegree(node);
+                            break;
+                        }
+                    }
+                }
+            } else {
+                int end = Math.min(start + grain, frontier.length);
+                for (int i = start; i < end; i++) {
+                    int node = frontier[i];
+                    for (int edge = graph.getFirstEdge(node); edge < graph.getFirstEdge(node + 1); edge++) {
+                        int target = graph.getTarget(edge);
+                        if (!isVisited(target) && visit(target)) {
+                            distances[target] = depth + 1;
+                            next = add(next, count++, target);
+                            edges += graph.getOutDegree(target);
+                        }
+                    }
+                }
+            }
+            found[chunk] = Arrays.copyOf(next, count);
+            foundEdges[chunk] = edges;
+        }
+
+        /**
+         * Adds a node to a growable array
+         */
+        private static int[] add(int[] nodes, int size, int node) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+            }
+            nodes[size] = node;
+            return nodes;
+        }
+    }
+
+    /**
+     * Searches a range of the chunks of a level, splitting it in half until
+     * there is one chunk per task
+     */
+    private static class LevelTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Level level;
+        private final int from;
+        private final int to;
+
+        LevelTask(Level level, int from, int to) {
+            this.level = level;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (from < to) {
+                    level.search(from);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new LevelTask(level, from, middle), new LevelTask(level, middle, to));
+            }
+        }
+    }
+
+}
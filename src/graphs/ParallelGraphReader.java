@@ -0,0 +1,359 @@
+package graphs;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Reads graphs in the same syntax as Graph.read, using several threads. The
+ * input is split into chunks of whole lines as it is read, and each chunk is
+ * tokenized and parsed on the pool while the next one is read. The distinct
+ * node values of each chunk are then looked up or created in the graph in one
+ * pass. Finally the edges are joined to their nodes in parallel: the nodes are
+ * divided into partitions by value, and each edge is joined to its origin by
+ * the task for the origin's partition, then to its destination by the task
+ * for the destination's partition, so no two tasks change the same node.
+ *
+ * The resulting graph has the same nodes and edges as Graph.read would give,
+ * and invalid input throws the same exception that Graph.read would throw
+ * first. Anything after the closing brace is ignored, as it is by Graph.read.
+ *
+ * @author kevinlee
+ *
+ */
+public class ParallelGraphReader {
+
+    /** The default smallest number of chars in a chunk. */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 16;
+
+    /** How many partitions of nodes each thread of the pool is given. */
+    private static final int PARTITIONS_PER_THREAD = 4;
+
+    /** The largest array that can safely be asked for. */
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private final ForkJoinPool pool;
+    private final int minChunkSize;
+
+    /**
+     * Creates a reader that runs on the common pool
+     */
+    public ParallelGraphReader() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a reader that runs on the given pool
+     *
+     * @param pool
+     *            The pool the chunks are parsed on
+     */
+    public ParallelGraphReader(ForkJoinPool pool) {
+        this(pool, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates a reader that runs on the given pool, with a given smallest
+     * chunk size
+     *
+     * @param pool
+     *            The pool the chunks are parsed on
+     * @param minChunkSize
+     *            The smallest number of chars in a chunk. A chunk is extended
+     *            to the end of the line it stops in.
+     */
+    public ParallelGraphReader(ForkJoinPool pool, int minChunkSize) {
+        if (minChunkSize < 1)
+            throw new IllegalArgumentException("Chunk size must be positive");
+        this.pool = pool;
+        this.minChunkSize = minChunkSize;
+    }
+
+    /**
+     * Reads in a graph
+     *
+     * @param reader
+     *            The reader object from which graph is read
+     * @return The resulting graph
+     */
+    public Graph read(Reader reader) {
+        final int partitions = pool.getParallelism() * PARTITIONS_PER_THREAD;
+
+        // Parse each chunk while the next is read. A chunk is only started
+        // once it is known whether it is the last.
+        List<Chunk> chunks = new ArrayList<Chunk>();
+        List<ForkJoinTask<?>> tasks = new ArrayList<ForkJoinTask<?>>();
+        try {
+            Splitter splitter = new Splitter(reader);
+            char[] input = splitter.next();
+            if (input == null) {
+                input = new char[0];
+            }
+            while (input != null) {
+                char[] next = splitter.next();
+                final Chunk chunk = new Chunk(input, chunks.isEmpty(), next == null, partitions);
+                chunks.add(chunk);
+                tasks.add(pool.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        chunk.parse();
+                    }
+                }));
+                input = next;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read from reader", e);
+        }
+        joinAll(tasks);
+
+        // Keep the chunks up to the one with the closing brace, failing at the
+        // first error before it
+        int used = 0;
+        while (true) {
+            Chunk chunk = chunks.get(used++);
+            if (chunk.error != null)
+                throw chunk.error;
+            if (chunk.closed)
+                break;
+        }
+        final List<Chunk> parsed = chunks.subList(0, used);
+
+        // Look up or create the nodes, in the order they were first read
+        final Graph graph = new Graph(parsed.get(0).name);
+        for (Chunk chunk : parsed) {
+            chunk.resolve(graph);
+        }
+
+        // Join the edges to their origins, then to their destinations
+        for (int side = 0; side < 2; side++) {
+            final boolean origins = side == 0;
+            tasks.clear();
+            for (int p = 0; p < partitions; p++) {
+                final int partition = p;
+                tasks.add(pool.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (Chunk chunk : parsed) {
+                            chunk.join(partition, origins);
+                        }
+                    }
+                }));
+            }
+            joinAll(tasks);
+        }
+        graph.structureChanged();
+        return graph;
+    }
+
+    /**
+     * Waits for all of a list of tasks to finish
+     */
+    private static void joinAll(List<ForkJoinTask<?>> tasks) {
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+    }
+
+    /**
+     * Cuts the input into chunks as it is read. Each chunk has at least
+     * minChunkSize chars, and ends just after a newline, except for the last.
+     * Only the chunk being cut is held, so the input can be bigger than the
+     * largest array.
+     */
+    private class Splitter {
+        private final Reader reader;
+        private char[] buffer;
+        private int length; // the number of chars in buffer
+        private boolean endOfInput;
+
+        Splitter(Reader reader) {
+            this.reader = reader;
+            this.buffer = new char[(int) Math.min(Math.max(2L * minChunkSize, 1024), MAX_ARRAY_SIZE)];
+        }
+
+        /**
+         * Returns the next chunk
+         *
+         * @return The chars of the chunk, or null if the input has ended
+         */
+        char[] next() throws IOException {
+            int scanned = 0; // chars already checked for a newline
+            while (true) {
+                for (int i = Math.max(scanned, minChunkSize - 1); i < length; i++) {
+                    if (buffer[i] == '\n')
+                        return take(i + 1);
+                }
+                scanned = length;
+                if (endOfInput)
+                    return length > 0 ? take(length) : null;
+                if (length == buffer.length) {
+                    if (length == MAX_ARRAY_SIZE)
+                        throw new RuntimeException("Line too long to read");
+                    buffer = Arrays.copyOf(buffer, (int) Math.min(2L * length, MAX_ARRAY_SIZE));
+                }
+                int count = reader.read(buffer, length, buffer.length - length);
+                if (count == -1) {
+                    endOfInput = true;
+                } else {
+                    length += count;
+                }
+            }
+        }
+
+        /**
+         * Removes the first chars of the buffer, and returns them
+         */
+        private char[] take(int count) {
+            char[] chunk = Arrays.copyOf(buffer, count);
+            length -= count;
+            System.arraycopy(buffer, count, buffer, 0, length);
+            return chunk;
+        }
+    }
+
+    /**
+     * A run of whole lines of the input, which records the nodes and edges
+     * read from it until they can be added to the graph
+     */
+    private static class Chunk implements GraphSink<Integer> {
+        private char[] input; // until it is parsed
+        private final boolean first;
+        private final boolean last;
+        private final int partitions;
+
+        private String name;
+        private boolean closed;
+        private RuntimeException error;
+
+        private Map<String, Integer> valueIds = new HashMap<String, Integer>();
+        private List<String> nodeValues = new ArrayList<String>(); // distinct
+        private Node[] nodes;
+        private int edgeCount;
+        private int[] edgeNodes = new int[16]; // origin and destination of
+                                               // each edge, as indexes into
+                                               // nodeValues
+        private List<String> edgeValues = new ArrayList<String>();
+        private Edge[] edges;
+        private int[][] byOrigin; // the edges grouped by the partition of
+                                  // their origin: offsets, then edge indexes
+        private int[][] byDestination;
+
+        Chunk(char[] input, boolean first, boolean last, int partitions) {
+            this.input = input;
+            this.first = first;
+            this.last = last;
+            this.partitions = partitions;
+        }
+
+        /**
+         * Parses this chunk, recording whether it reached the closing brace or
+         * the first error in it, and groups its edges by partition
+         */
+        void parse() {
+            try {
+                Tokenizer tokenizer = Graph.createTokenizer(new CharArrayReader(input));
+                if (first) {
+                    Graph.parseHeader(tokenizer, this);
+                }
+                closed = Graph.parseBody(tokenizer, this, !last);
+            } catch (RuntimeException e) {
+                error = e;
+            }
+            input = null;
+            valueIds = null;
+
+            int[] partition = new int[nodeValues.size()];
+            for (int i = 0; i < partition.length; i++) {
+                partition[i] = (nodeValues.get(i).hashCode() & Integer.MAX_VALUE) % partitions;
+            }
+            byOrigin = group(partition, 0);
+            byDestination = group(partition, 1);
+        }
+
+        /**
+         * Sorts the edges by the partition of one of their ends
+         */
+        private int[][] group(int[] partition, int end) {
+            int[] offsets = new int[partitions + 1];
+            for (int i = 0; i < edgeCount; i++) {
+                offsets[partition[edgeNodes[2 * i + end]] + 1]++;
+            }
+            for (int p = 0; p < partitions; p++) {
+                offsets[p + 1] += offsets[p];
+            }
+            int[] next = Arrays.copyOf(offsets, partitions);
+            int[] order = new int[edgeCount];
+            for (int i = 0; i < edgeCount; i++) {
+                order[next[partition[edgeNodes[2 * i + end]]]++] = i;
+            }
+            return new int[][] { offsets, order };
+        }
+
+        /**
+         * Finds or creates the graph's node for each distinct node value read
+         */
+        void resolve(Graph graph) {
+            nodes = new Node[nodeValues.size()];
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i] = graph.getOrCreateNode(nodeValues.get(i));
+            }
+            edges = new Edge[edgeCount];
+        }
+
+        /**
+         * Joins the edges with an end in a partition to that end, creating
+         * them when they are joined to their origins
+         */
+        void join(int partition, boolean origins) {
+            int[][] groups = origins ? byOrigin : byDestination;
+            for (int k = groups[0][partition]; k < groups[0][partition + 1]; k++) {
+                int i = groups[1][k];
+                if (origins) {
+                    edges[i] = new Edge(edgeValues.get(i));
+                    edges[i].addOrigin(nodes[edgeNodes[2 * i]]);
+                } else {
+                    edges[i].addDestination(nodes[edgeNodes[2 * i + 1]]);
+                }
+            }
+        }
+
+        @Override
+        public void begin(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Integer node(String value) {
+            Integer id = valueIds.get(value);
+            if (id == null) {
+                id = nodeValues.size();
+                nodeValues.add(value);
+                valueIds.put(value, id);
+            }
+            return id;
+        }
+
+        @Override
+        public void edge(Integer from, String value, Integer to) {
+            if (from == null || to == null)
+                throw new NullPointerException("Null nodes"); // As new Edge
+                                                              // would
+            int i = 2 * edgeCount;
+            if (i == edgeNodes.length) {
+                edgeNodes = Arrays.copyOf(edgeNodes, i * 2);
+            }
+            edgeNodes[i] = from;
+            edgeNodes[i + 1] = to;
+            edgeValues.add(value);
+            edgeCount++;
+        }
+    }
+
+}
@@ -0,0 +1,53 @@
+package graphs;
+
+/**
+ * A request for a path from one node to another, to be answered in a batch by
+ * BatchPathFinder
+ *
+ * @author kevinlee
+ *
+ */
+public class PathQuery {
+
+    private final Node source;
+    private final Node target;
+
+    /**
+     * Creates a query for a path between two nodes
+     *
+     * @param source
+     *            The node the path starts at
+     * @param target
+     *            The node the path ends at
+     */
+    public PathQuery(Node source, Node target) {
+        if (source == null || target == null)
+            throw new NullPointerException("Null nodes");
+        this.source = source;
+        this.target = target;
+    }
+
+    /**
+     * Returns the node the path starts at
+     *
+     * @return The source node
+     */
+    public Node getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the node the path ends at
+     *
+     * @return The target node
+     */
+    public Node getTarget() {
+        return target;
+    }
+
+    @Override
+    public String toString() {
+        return source + " -> " + target;
+    }
+
+}
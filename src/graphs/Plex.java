@@ -1,24 +1,37 @@
 package graphs;
 
+import java.util.AbstractSet;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Set;
 
 /**
  * A building block for graphs and hypergraphs.
+ * 
+ * Each of the four relations (containers, contents, origins and destinations)
+ * is stored as null when it is empty, as the Plex itself when it has exactly
+ * one member, and as a HashSet only when it has more. Most nodes and edges
+ * never need a set at all.
  * @author David Matuszek
  */
 public class Plex {
+    private static final int CONTAINERS = 0;
+    private static final int CONTENTS = 1;
+    private static final int ORIGINS = 2;
+    private static final int DESTINATIONS = 3;
+
     /** The things that contain this Plex. */
-    public Set<Plex> containers   = new HashSet<Plex>();
+    private Object containers;
     
     /** The things that are in this Plex. */
-    public Set<Plex> contents     = new HashSet<Plex>();
+    private Object contents;
     
     /** The places this Plex comes from. */
-    public Set<Plex> origins      = new HashSet<Plex>();
+    private Object origins;
     
     /** The places this Plex goes to. */
-    public Set<Plex> destinations = new HashSet<Plex>();
+    private Object destinations;
     
     /** The value in this Plex. */
     private  Object value;
@@ -48,8 +61,8 @@ public class Plex {
      * @param that The Plex to be put in this Plex's containers.
      */
     public void addContainer(Plex that) {
-        this.containers.add(that);
-        that.contents.add(this);
+        this.containers = add(this.containers, that);
+        that.contents = add(that.contents, this);
     }
 
     /**
@@ -60,8 +73,8 @@ public class Plex {
      * @param that The Plex to be removed from this Plex's containers.
      */    
     public void removeContainer(Plex that) {
-        this.containers.remove(that);
-        that.contents.remove(this);
+        this.containers = remove(this.containers, that);
+        that.contents = remove(that.contents, this);
     }
 
     /**
@@ -72,8 +85,8 @@ public class Plex {
      * @param that The Plex to be put in this Plex's contents.
      */
     public void addContent(Plex that) {
-        this.contents.add(that);
-        that.containers.add(this);
+        this.contents = add(this.contents, that);
+        that.containers = add(that.containers, this);
     }
 
     /**
@@ -84,8 +97,8 @@ public class Plex {
      * @param that The Plex to be removed from this Plex's contents.
      */   
     public void removeContent(Plex that) {
-        this.contents.remove(that);
-        that.containers.remove(this);
+        this.contents = remove(this.contents, that);
+        that.containers = remove(that.containers, this);
     }
 
     /**
@@ -96,8 +109,8 @@ public class Plex {
      * @param that The Plex to be put in this Plex's origins.
      */
     public void addOrigin(Plex that) {
-        this.origins.add(that);
-        that.destinations.add(this);
+        this.origins = add(this.origins, that);
+        that.destinations = add(that.destinations, this);
     }
     
     /**
@@ -108,8 +121,8 @@ public class Plex {
      * @param that The Plex to be removed from this Plex's origins.
      */   
     public void removeOrigin(Plex that) {
-        this.origins.remove(that);
-        that.destinations.remove(this);
+        this.origins = remove(this.origins, that);
+        that.destinations = remove(that.destinations, this);
     }
 
     /**
@@ -120,8 +133,8 @@ public class Plex {
      * @param that The Plex to be put in this Plex's destinations.
      */
     public void addDestination(Plex that) {
-        this.destinations.add(that);
-        that.origins.add(this);
+        this.destinations = add(this.destinations, that);
+        that.origins = add(that.origins, this);
     }
     
     /**
@@ -132,11 +145,71 @@ public class Plex {
      * @param that The Plex to be removed from this Plex's destinations.
      */   
     public void removeDestination(Plex that) {
-        this.destinations.remove(that);
-        that.origins.remove(this);
+        this.destinations = remove(this.destinations, that);
+        that.origins = remove(that.origins, this);
     }
     
     
+    /**
+     * Returns a read-only, live view of the things that contain this Plex.
+     * 
+     * @return The containers of this Plex
+     */
+    public Set<Plex> getContainers() {
+        return new Relation(CONTAINERS);
+    }
+
+    /**
+     * Returns a read-only, live view of the things that are in this Plex.
+     * 
+     * @return The contents of this Plex
+     */
+    public Set<Plex> getContents() {
+        return new Relation(CONTENTS);
+    }
+
+    /**
+     * Returns a read-only, live view of the places this Plex comes from.
+     * 
+     * @return The origins of this Plex
+     */
+    public Set<Plex> getOrigins() {
+        return new Relation(ORIGINS);
+    }
+
+    /**
+     * Returns a read-only, live view of the places this Plex goes to.
+     * 
+     * @return The destinations of this Plex
+     */
+    public Set<Plex> getDestinations() {
+        return new Relation(DESTINATIONS);
+    }
+
+    /**
+     * Gets one of the things that contain this Plex, without allocating.
+     * @return A container of this Plex, or null if there are none
+     */
+    protected Plex getOneContainer() {
+        return getOne(containers);
+    }
+
+    /**
+     * Gets one of the places this Plex comes from, without allocating.
+     * @return An origin of this Plex, or null if there are none
+     */
+    protected Plex getOneOrigin() {
+        return getOne(origins);
+    }
+
+    /**
+     * Gets one of the places this Plex goes to, without allocating.
+     * @return A destination of this Plex, or null if there are none
+     */
+    protected Plex getOneDestination() {
+        return getOne(destinations);
+    }
+    
     /**
      * Gets the member of a single-element set
      * @param set The single-element plex set
@@ -147,4 +220,114 @@ public class Plex {
             return plex;
         }
         return null; }
+
+    /**
+     * Gets one member of a stored relation
+     * @param relation null, a single Plex, or a set of Plexes
+     * @return A member of the relation, or null if it is empty
+     */
+    @SuppressWarnings("unchecked")
+    private static Plex getOne(Object relation) {
+        if (relation == null || relation instanceof Plex) {
+            return (Plex) relation;
+        }
+        return getOne((Set<Plex>) relation);
+    }
+
+    /**
+     * Adds a Plex to a stored relation
+     * @param relation null, a single Plex, or a set of Plexes
+     * @param that The Plex to be added
+     * @return The relation with that added to it
+     */
+    @SuppressWarnings("unchecked")
+    private static Object add(Object relation, Plex that) {
+        if (relation == null) {
+            return that;
+        }
+        if (relation instanceof Plex) {
+            if (relation.equals(that)) {
+                return relation;
+            }
+            Set<Plex> set = new HashSet<Plex>(4);
+            set.add((Plex) relation);
+            set.add(that);
+            return set;
+        }
+        ((Set<Plex>) relation).add(that);
+        return relation;
+    }
+
+    /**
+     * Removes a Plex from a stored relation
+     * @param relation null, a single Plex, or a set of Plexes
+     * @param that The Plex to be removed
+     * @return The relation with that removed from it
+     */
+    @SuppressWarnings("unchecked")
+    private static Object remove(Object relation, Plex that) {
+        if (relation == null || relation instanceof Plex) {
+            return that.equals(relation) ? null : relation;
+        }
+        Set<Plex> set = (Set<Plex>) relation;
+        set.remove(that);
+        return set.isEmpty() ? null : set;
+    }
+
+    /**
+     * A read-only, live view of one of this Plex's relations.
+     */
+    private class Relation extends AbstractSet<Plex> {
+        private final int kind;
+
+        Relation(int kind) {
+            this.kind = kind;
+        }
+
+        private Object get() {
+            switch (kind) {
+            case CONTAINERS:
+                return containers;
+            case CONTENTS:
+                return contents;
+            case ORIGINS:
+                return origins;
+            default:
+                return destinations;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Iterator<Plex> iterator() {
+            Object relation = get();
+            if (relation == null) {
+                return Collections.<Plex> emptyIterator();
+            }
+            if (relation instanceof Plex) {
+                return Collections.singleton((Plex) relation).iterator();
+            }
+            return Collections.unmodifiableSet((Set<Plex>) relation).iterator();
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public boolean contains(Object o) {
+            Object relation = get();
+            if (relation == null || relation instanceof Plex) {
+                return relation != null && relation.equals(o);
+            }
+            return ((Set<Plex>) relation).contains(o);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public int size() {
+            Object relation = get();
+            if (relation == null || relation instanceof Plex) {
+                return relation == null ? 0 : 1;
+            }
+            return ((Set<Plex>) relation).size();
+        }
+    }
 }
\ No newline at end of file
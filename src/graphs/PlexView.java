@@ -0,0 +1,94 @@
+package graphs;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A read-only view of the members of a Plex set that are of a given type. The
+ * view is live: it reflects later changes to the underlying set, and never
+ * copies it.
+ *
+ * @author kevinlee
+ *
+ * @param <T>
+ *            The type of Plex to be seen through the view
+ */
+class PlexView<T extends Plex> extends AbstractSet<T> {
+
+    private final Set<Plex> set;
+    private final Class<T> type;
+
+    /**
+     * Creates a view of the members of set that are of the given type
+     *
+     * @param set
+     *            The underlying set
+     * @param type
+     *            The type of the members to be seen
+     */
+    PlexView(Set<Plex> set, Class<T> type) {
+        this.set = set;
+        this.type = type;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        final Iterator<Plex> it = set.iterator();
+        return new Iterator<T>() {
+            private T next = advance();
+
+            private T advance() {
+                while (it.hasNext()) {
+                    Plex plex = it.next();
+                    if (type.isInstance(plex)) {
+                        return type.cast(plex);
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public T next() {
+                if (next == null)
+                    throw new NoSuchElementException();
+                T current = next;
+                next = advance();
+                return current;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return type.isInstance(o) && set.contains(o);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return !iterator().hasNext();
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Plex plex : set) {
+            if (type.isInstance(plex)) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+}
@@ -0,0 +1,91 @@
+package graphs;
+
+import java.util.BitSet;
+
+/**
+ * Remembers which nodes of a graph can be reached from which. The graph's
+ * strongly connected components are found once, and the components reachable
+ * from each component asked about are kept as a bitset over the
+ * condensation, so that nodes on cycles share one entry. It is only valid for
+ * the structure version of the graph it was built for.
+ *
+ * @author kevinlee
+ *
+ */
+class ReachabilityIndex {
+
+    private final int structureVersion;
+    private final StronglyConnectedComponents components;
+    private final BitSet[] reachable; // by source component, or null until
+                                      // asked
+
+    /**
+     * Creates an empty index for the current nodes and edges of a graph
+     *
+     * @param g
+     *            The graph
+     */
+    ReachabilityIndex(Graph g) {
+        this.structureVersion = g.getStructureVersion();
+        this.components = new StronglyConnectedComponents(g);
+        this.reachable = new BitSet[components.getComponentCount()];
+    }
+
+    /**
+     * Returns the structure version of the graph when this index was built
+     *
+     * @return The structure version
+     */
+    int getStructureVersion() {
+        return structureVersion;
+    }
+
+    /**
+     * Determines whether there is a path from one node to another
+     *
+     * @param from
+     *            The node the path starts at
+     * @param to
+     *            The node the path ends at
+     * @return true if to can be reached from from (or is from)
+     */
+    boolean isReachable(Node from, Node to) {
+        int source = components.getComponent(from);
+        int target = components.getComponent(to);
+        if (source < 0 || target < 0)
+            throw new IllegalArgumentException("Node is not in the graph");
+        if (source == target)
+            return true;
+        if (target > source) // Condensation edges only lead to lower ids
+            return false;
+        if (reachable[source] == null) {
+            reachable[source] = search(source);
+        }
+        return reachable[source].get(target);
+    }
+
+    /**
+     * Finds the components reachable from a component with a
+     * depth-first-search of the condensation
+     */
+    private BitSet search(int source) {
+        BitSet visited = new BitSet(source + 1);
+        int[] stack = new int[source + 1]; // each component is pushed once,
+                                           // and only lower ids are reached
+        int size = 0;
+        visited.set(source);
+        stack[size++] = source;
+        while (size > 0) {
+            int component = stack[--size];
+            for (int i = 0; i < components.getSuccessorCount(component); i++) {
+                int next = components.getSuccessor(component, i);
+                if (!visited.get(next)) {
+                    visited.set(next);
+                    stack[size++] = next;
+                }
+            }
+        }
+        return visited;
+    }
+
+}
@@ -0,0 +1,227 @@
+package graphs;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * A Reader that reads ahead on a background thread. The thread reads and
+ * decodes the input into a fixed number of large char buffers, which are
+ * handed over through a queue and given back once they have been read, so
+ * the reading thread only waits for input when it gets ahead of the
+ * background thread.
+ *
+ * @author kevinlee
+ *
+ */
+public class ReadAheadReader extends Reader {
+
+    /** The default number of chars in each buffer. */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    /** The default number of buffers. */
+    public static final int DEFAULT_BUFFER_COUNT = 4;
+
+    /** The first two bytes of a gzip file. */
+    private static final int GZIP_MAGIC_1 = 0x1f;
+    private static final int GZIP_MAGIC_2 = 0x8b;
+
+    private final BlockingQueue<Block> filled;
+    private final BlockingQueue<char[]> free;
+    private final InputStream in;
+    private final Thread thread;
+    private Block block; // the buffer being read, or null
+    private int position; // index in block of the next char to read
+    private volatile boolean closed;
+
+    /**
+     * Creates a reader of a UTF-8 input, with the default buffers
+     *
+     * @param in
+     *            The input
+     */
+    public ReadAheadReader(InputStream in) {
+        this(in, StandardCharsets.UTF_8, DEFAULT_BUFFER_SIZE, DEFAULT_BUFFER_COUNT);
+    }
+
+    /**
+     * Creates a reader of an input, and starts reading ahead
+     *
+     * @param in
+     *            The input, which is closed on the background thread once it
+     *            ends or this reader is closed
+     * @param charset
+     *            The encoding of the input
+     * @param bufferSize
+     *            The number of chars in each buffer
+     * @param bufferCount
+     *            The number of buffers, at least 2 so that one can be filled
+     *            while another is read
+     */
+    public ReadAheadReader(InputStream in, Charset charset, int bufferSize, int bufferCount) {
+        if (bufferSize < 1 || bufferCount < 2)
+            throw new IllegalArgumentException("Invalid buffers " + bufferCount + " x " + bufferSize);
+        this.in = in;
+        this.filled = new ArrayBlockingQueue<Block>(bufferCount + 1); // and
+                                                                      // the end
+        this.free = new ArrayBlockingQueue<char[]>(bufferCount);
+        for (int i = 0; i < bufferCount; i++) {
+            free.add(new char[bufferSize]);
+        }
+        final Reader decoder = new InputStreamReader(in, charset);
+        this.thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                fill(decoder);
+            }
+        }, "ReadAheadReader");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Opens a UTF-8 file for reading ahead, unzipping it if it starts like a
+     * gzip file
+     *
+     * @param file
+     *            The file
+     * @return The reader
+     * @throws IOException
+     *             If the file can't be opened
+     */
+    public static ReadAheadReader open(Path file) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16);
+        try {
+            in.mark(2);
+            boolean gzipped = in.read() == GZIP_MAGIC_1 && in.read() == GZIP_MAGIC_2;
+            in.reset();
+            if (gzipped) {
+                in = new GZIPInputStream(in, 1 << 16);
+            }
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        return new ReadAheadReader(in);
+    }
+
+    /**
+     * Fills free buffers from the input until it ends, on the background
+     * thread
+     */
+    private void fill(Reader decoder) {
+        try {
+            fillBuffers(decoder);
+        } finally {
+            try {
+                in.close(); // Here, so it can't be closed mid-read
+            } catch (IOException e) {
+                // Nothing more will be read
+            }
+        }
+    }
+
+    /**
+     * Fills free buffers from the input until it ends or this reader is
+     * closed
+     */
+    private void fillBuffers(Reader decoder) {
+        try {
+            while (!closed) {
+                char[] chars = free.take();
+                int length = 0;
+                while (length < chars.length) { // Fill the buffer if possible
+                    int count = decoder.read(chars, length, chars.length - length);
+                    if (count == -1)
+                        break;
+                    length += count;
+                }
+                if (length > 0) {
+                    filled.put(new Block(chars, length, null));
+                }
+                if (length < chars.length) {
+                    filled.put(new Block(null, -1, null));
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                filled.offer(new Block(null, -1, e)); // There's always room
+            }
+        } catch (RuntimeException e) {
+            if (!closed) {
+                filled.offer(new Block(null, -1, new IOException(e)));
+            }
+        } catch (InterruptedException e) {
+            // Closed
+        }
+    }
+
+    @Override
+    public int read(char[] chars, int offset, int length) throws IOException {
+        if (closed)
+            throw new IOException("Reader is closed");
+        if (length == 0)
+            return 0;
+        if (block == null || (block.length > 0 && position == block.length)) {
+            if (block != null) {
+                free.add(block.chars);
+            }
+            try {
+                block = filled.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+            position = 0;
+        }
+        if (block.error != null)
+            throw new IOException(block.error);
+        if (block.length == -1) { // Keep the end, for any later reads
+            return -1;
+        }
+        int count = Math.min(length, block.length - position);
+        System.arraycopy(block.chars, position, chars, offset, count);
+        position += count;
+        return count;
+    }
+
+    /**
+     * Stops reading ahead. The input is closed by the background thread,
+     * once it has finished any read it is in the middle of.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed)
+            return;
+        closed = true;
+        thread.interrupt();
+    }
+
+    /**
+     * A buffer handed over by the background thread, or the end of the
+     * input if length is -1
+     */
+    private static class Block {
+        final char[] chars;
+        final int length;
+        final IOException error; // why the input ended early, or null
+
+        Block(char[] chars, int length, IOException error) {
+            this.chars = chars;
+            this.length = length;
+            this.error = error;
+        }
+    }
+
+}
@@ -0,0 +1,249 @@
+package graphs;
+
+import java.util.Arrays;
+
+/**
+ * The strongly connected components of a graph snapshot, and the condensation
+ * of the graph: the directed acyclic graph with one node per component and an
+ * edge between two components wherever an edge of the graph joins them.
+ *
+ * The components are found with Tarjan's algorithm, run with explicit int
+ * stacks rather than recursion so that long paths can't overflow the call
+ * stack. Components are numbered in the order Tarjan's algorithm completes
+ * them, which is a reverse topological order: every edge of the condensation
+ * goes from a higher component id to a lower one.
+ *
+ * @author kevinlee
+ *
+ */
+public class StronglyConnectedComponents {
+
+    private final CompactGraph graph;
+    private final int[] components; // by node id
+    private final int componentCount;
+    private final int[] memberOffsets;
+    private final int[] members;
+    private final int[] successorOffsets;
+    private final int[] successors;
+
+    /**
+     * Finds the components of the current nodes and edges of a graph
+     *
+     * @param g
+     *            The graph
+     */
+    public StronglyConnectedComponents(Graph g) {
+        this(g.freeze());
+    }
+
+    /**
+     * Finds the components of a snapshot
+     *
+     * @param g
+     *            The snapshot
+     */
+    public StronglyConnectedComponents(CompactGraph g) {
+        this.graph = g;
+        int nodeCount = g.getNodeCount();
+        this.components = new int[nodeCount];
+        this.componentCount = findComponents();
+
+        // List the nodes of each component together
+        memberOffsets = new int[componentCount + 1];
+        for (int node = 0; node < nodeCount; node++) {
+            memberOffsets[components[node] + 1]++;
+        }
+        for (int c = 0; c < componentCount; c++) {
+            memberOffsets[c + 1] += memberOffsets[c];
+        }
+        members = new int[nodeCount];
+        int[] next = Arrays.copyOf(memberOffsets, componentCount);
+        for (int node = 0; node < nodeCount; node++) {
+            members[next[components[node]]++] = node;
+        }
+
+        // Join the components, once for each pair, skipping edges inside a
+        // component
+        successorOffsets = new int[componentCount + 1];
+        int[] lastSeen = new int[componentCount]; // the last component that
+                                                  // had an edge to each one
+        Arrays.fill(lastSeen, -1);
+        int[] joined = new int[16];
+        int count = 0;
+        for (int c = 0; c < componentCount; c++) {
+            successorOffsets[c] = count;
+            for (int m = memberOffsets[c]; m < memberOffsets[c + 1]; m++) {
+                int node = members[m];
+                for (int edge = g.getFirstEdge(node); edge < g.getFirstEdge(node + 1); edge++) {
+                    int target = components[g.getTarget(edge)];
+                    if (target != c && lastSeen[target] != c) {
+                        lastSeen[target] = c;
+                        if (count == joined.length) {
+                            joined = Arrays.copyOf(joined, count * 2);
+                        }
+                        joined[count++] = target;
+                    }
+                }
+            }
+        }
+        successorOffsets[componentCount] = count;
+        successors = Arrays.copyOf(joined, count);
+    }
+
+    /**
+     * Runs Tarjan's algorithm, filling in the component of each node
+     *
+     * @return The number of components
+     */
+    private int findComponents() {
+        int nodeCount = graph.getNodeCount();
+        int[] index = new int[nodeCount]; // visiting order, or -1
+        int[] lowLink = new int[nodeCount];
+        int[] nextEdge = new int[nodeCount]; // the next edge to follow out
+                                             // of each node on the call
+                                             // stack
+        int[] callStack = new int[nodeCount];
+        int[] stack = new int[nodeCount]; // visited nodes without a
+                                          // component yet
+        Arrays.fill(index, -1);
+        Arrays.fill(components, -1);
+        int visited = 0;
+        int componentCount = 0;
+
+        for (int root = 0; root < nodeCount; root++) {
+            if (index[root] >= 0)
+                continue;
+            int calls = 0;
+            int stackSize = 0;
+            index[root] = lowLink[root] = visited++;
+            nextEdge[root] = graph.getFirstEdge(root);
+            stack[stackSize++] = root;
+            callStack[calls++] = root;
+
+            while (calls > 0) {
+                int node = callStack[calls - 1];
+                if (nextEdge[node] < graph.getFirstEdge(node + 1)) {
+                    int next = graph.getTarget(nextEdge[node]++);
+                    if (index[next] < 0) { // Visit next, as a recursive
+                                           // call would
+                        index[next] = lowLink[next] = visited++;
+                        nextEdge[next] = graph.getFirstEdge(next);
+                        stack[stackSize++] = next;
+                        callStack[calls++] = next;
+                    } else if (components[next] < 0) { // next is on the stack
+                        lowLink[node] = Math.min(lowLink[node], index[next]);
+                    }
+                } else { // Return from node
+                    calls--;
+                    if (lowLink[node] == index[node]) {
+                        int member;
+                        do {
+                            member = stack[--stackSize];
+                            components[member] = componentCount;
+                        } while (member != node);
+                        componentCount++;
+                    }
+                    if (calls > 0) {
+                        int caller = callStack[calls - 1];
+                        lowLink[caller] = Math.min(lowLink[caller], lowLink[node]);
+                    }
+                }
+            }
+        }
+        return componentCount;
+    }
+
+    /**
+     * Returns the snapshot the components were found in
+     *
+     * @return The snapshot
+     */
+    public CompactGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the number of components
+     *
+     * @return The number of components
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Returns the component of a node
+     *
+     * @param node
+     *            The id of the node in the snapshot
+     * @return The id of the component
+     */
+    public int getComponent(int node) {
+        return components[node];
+    }
+
+    /**
+     * Returns the component of a node
+     *
+     * @param node
+     *            A node of the graph
+     * @return The id of the component, or -1 if the node is not in the
+     *         snapshot
+     */
+    public int getComponent(Node node) {
+        int id = graph.getId(node);
+        return id < 0 ? -1 : components[id];
+    }
+
+    /**
+     * Returns the number of nodes in a component
+     *
+     * @param component
+     *            The id of the component
+     * @return The number of nodes
+     */
+    public int getSize(int component) {
+        return memberOffsets[component + 1] - memberOffsets[component];
+    }
+
+    /**
+     * Returns one of the nodes in a component
+     *
+     * @param component
+     *            The id of the component
+     * @param index
+     *            Which of the nodes, from 0 to getSize(component) - 1
+     * @return The id of the node in the snapshot
+     */
+    public int getMember(int component, int index) {
+        return members[memberOffsets[component] + index];
+    }
+
+    /**
+     * Returns the number of components that a component has edges to, not
+     * counting itself
+     *
+     * @param component
+     *            The id of the component
+     * @return The number of edges out of the component in the condensation
+     */
+    public int getSuccessorCount(int component) {
+        return successorOffsets[component + 1] - successorOffsets[component];
+    }
+
+    /**
+     * Returns one of the components that a component has edges to. Its id is
+     * always lower than the component's own.
+     *
+     * @param component
+     *            The id of the component
+     * @param index
+     *            Which of the successors, from 0 to
+     *            getSuccessorCount(component) - 1
+     * @return The id of the successor component
+     */
+    public int getSuccessor(int component, int index) {
+        return successors[successorOffsets[component] + index];
+    }
+
+}
@@ -15,6 +15,8 @@ public class Token {
 
 	private TokenType type;
 	private String value;
+	private double number;
+	private boolean numberParsed;
 
 	/**
 	 * Constructor for Token
@@ -40,6 +42,24 @@ public class Token {
 		return this.value;
 	}
 
+	/**
+	 * Returns the numeric value of a NUMBER token. The value is parsed the
+	 * first time it is asked for, and kept.
+	 * 
+	 * @return The token's value as a double
+	 * @throws IllegalStateException
+	 *             If the token isn't a NUMBER
+	 */
+	public double getNumericValue() {
+		if (type != TokenType.NUMBER)
+			throw new IllegalStateException("Not a number: " + this);
+		if (!numberParsed) {
+			number = Double.parseDouble(value);
+			numberParsed = true;
+		}
+		return number;
+	}
+
 	/**
 	 * A getter method for the token's type
 	 * 
@@ -1,8 +1,8 @@
 package graphs;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.util.Arrays;
 import java.util.Set;
 
 /**
@@ -18,12 +18,47 @@ public class Tokenizer {
 		READY, IN_NUMBER, IN_VARIABLE, IN_COMMENTS, ERROR
 	}
 
-	private BufferedReader reader;
-	private final int BUFFERLIMIT = 100;
+	/**
+	 * How far through a number the tokenizer is. The accepted numbers are the
+	 * same as those of Double.parseDouble starting with a digit or '.',
+	 * including a float/double suffix and trailing whitespace.
+	 */
+	private enum NumberStates {
+		DOT, // just "."
+		INTEGER, // digits
+		FRACTION, // digits and a '.'
+		EXPONENT, // then 'e' or 'E'
+		EXPONENT_SIGN, // then '+' or '-'
+		EXPONENT_DIGITS, // then digits
+		SUFFIX, // then 'f', 'F', 'd' or 'D'
+		TRAILING_SPACE, // then whitespace
+		INVALID // a digit that Double.parseDouble doesn't accept
+	}
+
+	/** Tokens that are the same every time they occur. */
+	private static final Token EOL_TOKEN = new Token(TokenType.EOL, "\n");
+	private static final Token EOI_TOKEN = new Token(TokenType.EOI, "");
+	private static final Token SLASH_TOKEN = new Token(TokenType.SYMBOL, "/");
+	private static final Token DOT_TOKEN = new Token(TokenType.SYMBOL, ".");
+
+	private Reader reader;
+	private final int BUFFERSIZE = 1 << 16;
+	private char[] buffer = new char[BUFFERSIZE];
+	private int position; // index in buffer of the next character to read
+	private int limit; // index in buffer after the last character read in
+	private int tokenStart; // index in buffer of the current token's first character
+	private boolean endOfInput;
 	private Set<String> keywords;
+	private Token[] charTokens = new Token[128]; // single-character tokens, by character
 	private boolean hasNext;
 	private boolean pushBack;
-	private Token previousToken = null;
+
+	// The current token: its type, and either a shared Token or the part of
+	// the buffer holding its value
+	private TokenType type = null;
+	private Token token;
+	private int valueStart;
+	private int valueEnd;
 
 	/**
 	 * Constructor for Tokenizer object
@@ -32,12 +67,12 @@ public class Tokenizer {
 	 *            The Reader object to be tokenized
 	 * @param keywords
 	 *            A set of keywords that will be marked as keywords rather than
-	 *            names
+	 *            names. It should not be changed while the tokenizer is used.
 	 */
 	public Tokenizer(Reader reader, Set<String> keywords) {
 		if (reader == null)
 			throw new NullPointerException();
-		this.reader = new BufferedReader(reader);
+		this.reader = reader;
 		this.keywords = keywords;
 		this.hasNext = true;
 	}
@@ -58,123 +93,311 @@ public class Tokenizer {
 	 * @return The next Token from the Reader or the previous Token if pushBack is called immediately beforehand
 	 */
 	public Token next() {
+		advance();
+		return token();
+	}
+
+	/**
+	 * Moves on to the next token, or if pushBack is set to true, back to the
+	 * pushBack token, without creating a Token object. The current token can
+	 * then be inspected with type(), length(), contentEquals() and value().
+	 * Skips over comments marked by //
+	 * 
+	 * @return The type of the token moved to
+	 */
+	public TokenType advance() {
 		if (pushBack) {
 			pushBack = false;
-			return previousToken;
+			return type;
 		}
+		if (!this.hasNext())
+			throw new RuntimeException("No more tokens!");
+		token = null;
 		try {
-			States state;
-			String value = "";
-			if (!this.hasNext())
-				throw new RuntimeException("No more tokens!");
-			state = States.READY;
-			while (true) {
-				reader.mark(BUFFERLIMIT);
-				int chInt = reader.read();
-				char ch = (char) chInt;
-				switch (state) {
-				case READY: {
-					value = ch + "";
-					if (Character.isJavaIdentifierStart(ch)) {
-						state = States.IN_VARIABLE;
-						break;
-					}
-					if ((Character.isDigit(ch)) || (ch == '.')) {
-						state = States.IN_NUMBER;
-						break;
-					}
- 					if (ch == '/') {
-						state = States.IN_COMMENTS;
-						break;
-					}
-					if (ch == '\n') {
-						return createToken(TokenType.EOL, "\n");
-					}
-					if (Character.isWhitespace(ch))
-						break;
-					if (chInt == -1) {
-						this.hasNext = false;
-						return createToken(TokenType.EOI, "");
-					}
+			scan();
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		return type;
+	}
+
+	/**
+	 * Returns the type of the current token
+	 * 
+	 * @return The current token's type, or null before the first token
+	 */
+	public TokenType type() {
+		return type;
+	}
+
+	/**
+	 * Returns the number of characters in the current token's value
+	 * 
+	 * @return The length of the current token's value
+	 */
+	public int length() {
+		return (token != null) ? token.getValue().length() : valueEnd - valueStart;
+	}
 
-					// any single character that isn't whitespace and isn't part
-					// of a name or number is a symbol
-                    if (keywords.contains(value)) {
-                        return createToken(TokenType.KEYWORD, value.trim());
-                    } else {
-                        return createToken(TokenType.SYMBOL, value.trim());
-                    }
+	/**
+	 * Determines whether the current token's value is the given sequence of
+	 * characters, without creating a String
+	 * 
+	 * @param chars
+	 *            The characters to compare with
+	 * @return true if the current token's value equals chars
+	 */
+	public boolean contentEquals(CharSequence chars) {
+		if (token != null)
+			return token.getValue().contentEquals(chars);
+		if (chars.length() != valueEnd - valueStart)
+			return false;
+		for (int i = 0; i < chars.length(); i++) {
+			if (buffer[valueStart + i] != chars.charAt(i))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the current token's value. This creates a String unless the
+	 * token is a symbol, an end-of-line or the end-of-input.
+	 * 
+	 * @return The current token's value
+	 */
+	public String value() {
+		if (token != null)
+			return token.getValue();
+		return new String(buffer, valueStart, valueEnd - valueStart);
+	}
+
+	/**
+	 * Returns the current token as a Token object, creating it if necessary.
+	 * Asking again before advancing returns the same object.
+	 */
+	private Token token() {
+		if (token == null)
+			token = new Token(type, value());
+		return token;
+	}
+
+	/**
+	 * Reads the next token, recording it as the current token
+	 */
+	private void scan() throws IOException {
+		States state;
+		NumberStates numberState = null;
+		boolean inCommentBody = false;
+		state = States.READY;
+		tokenStart = position;
+		while (true) {
+			int chInt = read();
+			char ch = (char) chInt;
+			switch (state) {
+			case READY: {
+				tokenStart = (chInt == -1) ? position : position - 1;
+				if (Character.isJavaIdentifierStart(ch)) {
+					state = States.IN_VARIABLE;
+					break;
 				}
-				case IN_VARIABLE: {
-					if (Character.isJavaIdentifierPart(ch)) {
-						value += ch;
-					} else {
-						reader.reset();
-						state = States.READY;
-						if (keywords.contains(value)) {
-							return createToken(TokenType.KEYWORD, value.trim());
-						} else {
-							return createToken(TokenType.NAME, value.trim());
-						}
-					}
+				if ((Character.isDigit(ch)) || (ch == '.')) {
+					state = States.IN_NUMBER;
+					if (ch == '.')
+						numberState = NumberStates.DOT;
+					else if (ch >= '0' && ch <= '9')
+						numberState = NumberStates.INTEGER;
+					else
+						numberState = NumberStates.INVALID;
 					break;
 				}
-				case IN_NUMBER: {
-					String output = validateFloat(value, ch);
-					if (output == null) { // Results in invalid number, value is
-											// also an invalid number
-						if (value.equals(".")) { // Special case where value is
-													// a .
-							reader.reset();
-							state = States.READY;
-							return createToken(TokenType.SYMBOL, value.trim());
-						} else {
-							reader.reset();
-							state = States.READY;
-							return createToken(TokenType.ERROR, value.trim());
-						}
-					} else if (output.equals(value)) { // Results in invalid
-														// string, but value is
-														// a valid number
-						reader.reset();
-						state = States.READY;
-						return createToken(TokenType.NUMBER, value.trim());
-					} else { // Results in a valid number
-						value += ch;
-					}
-
+				if (ch == '/') {
+					state = States.IN_COMMENTS;
+					inCommentBody = false;
 					break;
 				}
-				case IN_COMMENTS: {
-					if (value.length() == 1) {
-						if (ch == '/') { // Valid comment syntax
-							value += ch;
-						} else { // Invalid comment syntax
-							reader.reset();
-							state = States.READY;
-							return createToken(TokenType.SYMBOL, value.trim());
-						}
-					} else { // Comment body
-						if (ch == '\n' || ch == 65535) { // End of comment
-							reader.reset();
-							state = States.READY;
-						} else {
-							value += ch;
-						}
-					}
+				if (ch == '\n') {
+					setToken(EOL_TOKEN);
+					return;
+				}
+				if (Character.isWhitespace(ch))
 					break;
+				if (chInt == -1) {
+					this.hasNext = false;
+					setToken(EOI_TOKEN);
+					return;
 				}
 
-				default: {
-					state = States.READY;
-					return createToken(TokenType.ERROR, value.trim());
+				// any single character that isn't whitespace and isn't part
+				// of a name or number is a symbol
+				setToken(charToken(ch));
+				return;
+			}
+			case IN_VARIABLE: {
+				if (!Character.isJavaIdentifierPart(ch)) {
+					unread(chInt);
+					if (isKeyword(tokenStart, position)) {
+						setToken(TokenType.KEYWORD);
+					} else {
+						setToken(TokenType.NAME);
+					}
+					return;
+				}
+				break;
+			}
+			case IN_NUMBER: {
+				NumberStates next = nextNumberState(numberState, ch);
+				if (next != null) { // Still a number (or the start of one)
+					numberState = next;
+					break;
 				}
+				unread(chInt);
+				if (isCompleteNumber(numberState)) {
+					setToken(TokenType.NUMBER);
+				} else if (numberState == NumberStates.DOT) { // Special case
+																// where value is
+																// a .
+					setToken(DOT_TOKEN);
+				} else {
+					setToken(TokenType.ERROR);
 				}
+				return;
+			}
+			case IN_COMMENTS: {
+				if (!inCommentBody) {
+					if (ch == '/') { // Valid comment syntax
+						inCommentBody = true;
+					} else { // Invalid comment syntax
+						unread(chInt);
+						setToken(SLASH_TOKEN);
+						return;
+					}
+				} else { // Comment body
+					if (ch == '\n' || ch == 65535) { // End of comment
+						unread(chInt);
+						state = States.READY;
+					} else {
+						tokenStart = position; // The body isn't kept
+					}
+				}
+				break;
+			}
+
+			default: {
+				setToken(TokenType.ERROR);
+				return;
+			}
 			}
-		} catch (IOException e) {
-			throw new RuntimeException();
 		}
+	}
 
+	/**
+	 * Makes a shared token the current token
+	 */
+	private void setToken(Token sharedToken) {
+		this.type = sharedToken.getType();
+		this.token = sharedToken;
+	}
+
+	/**
+	 * Makes the characters from tokenStart up to position the current token,
+	 * with leading and trailing whitespace trimmed off its value
+	 */
+	private void setToken(TokenType type) {
+		int start = tokenStart;
+		int end = position;
+		while (start < end && buffer[start] <= ' ')
+			start++;
+		while (end > start && buffer[end - 1] <= ' ')
+			end--;
+		this.type = type;
+		this.valueStart = start;
+		this.valueEnd = end;
+	}
+
+	/**
+	 * Returns the token for a single character that isn't part of a name or a
+	 * number. The tokens for ASCII characters are created once and reused.
+	 */
+	private Token charToken(char ch) {
+		if (ch < charTokens.length && charTokens[ch] != null)
+			return charTokens[ch];
+		String value = String.valueOf(ch);
+		Token charToken;
+		if (keywords.contains(value)) {
+			charToken = new Token(TokenType.KEYWORD, value.trim());
+		} else {
+			charToken = new Token(TokenType.SYMBOL, value.trim());
+		}
+		if (ch < charTokens.length)
+			charTokens[ch] = charToken;
+		return charToken;
+	}
+
+	/**
+	 * Determines whether the characters in buffer from start to end are a
+	 * keyword. Small keyword sets are compared without creating a String.
+	 */
+	private boolean isKeyword(int start, int end) {
+		if (keywords.size() > 8)
+			return keywords.contains(new String(buffer, start, end - start));
+		for (String keyword : keywords) {
+			if (keyword.length() == end - start) {
+				int i = 0;
+				while (i < keyword.length() && keyword.charAt(i) == buffer[start + i])
+					i++;
+				if (i == keyword.length())
+					return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the next character, reading another block from the Reader when
+	 * the buffer has been used up
+	 * 
+	 * @return The next character, or -1 at the end of input
+	 */
+	private int read() throws IOException {
+		if (position == limit && !fill())
+			return -1;
+		return buffer[position++];
+	}
+
+	/**
+	 * Steps back over the character just returned by read, so that it will be
+	 * read again. Nothing is stepped over at the end of input.
+	 */
+	private void unread(int chInt) {
+		if (chInt != -1)
+			position--;
+	}
+
+	/**
+	 * Reads another block of characters into the buffer. The characters before
+	 * the current token are discarded to make room, and the buffer grows only
+	 * if a single token fills it.
+	 * 
+	 * @return false if there are no more characters
+	 */
+	private boolean fill() throws IOException {
+		if (endOfInput)
+			return false;
+		if (tokenStart > 0) {
+			System.arraycopy(buffer, tokenStart, buffer, 0, limit - tokenStart);
+			limit -= tokenStart;
+			position -= tokenStart;
+			tokenStart = 0;
+		}
+		if (limit == buffer.length)
+			buffer = Arrays.copyOf(buffer, buffer.length * 2);
+		int count = reader.read(buffer, limit, buffer.length - limit);
+		if (count == -1) {
+			endOfInput = true;
+			return false;
+		}
+		limit += count;
+		return true;
 	}
 
 	/**
@@ -183,66 +406,71 @@ public class Tokenizer {
 	 * Tokenizer can only "take back" one token.
 	 */
 	public void pushBack() {
-		if (previousToken != null) {
+		if (type != null) {
 			this.pushBack = true;
 			this.hasNext = true;
 		}
 	}
 
 	/**
-	 * Determines whether a numerical input is valid or not Returns null if it's
-	 * invalid
+	 * Returns the state a number is in after one more character, or null if
+	 * the character can't continue the number. A newline or the end of input
+	 * always ends a number.
 	 */
-	private String validateFloat(String value, char thisChar) {
-		if (thisChar == 65535){		// Special case when we are at EOI
-			try{
-				Double.parseDouble(value);
-				return value;
-			} catch (NumberFormatException e0){
-				return null;
-			}
-		}
-		if (thisChar == '\n'){		// Special case when we are at EOL
-			try{
-				Double.parseDouble(value);
-				return value;
-			} catch (NumberFormatException e0){
-				return null;
-			}
-		}
-		
-		String newValue = value + thisChar;
-		try {
-			Double.parseDouble(newValue);
-			return newValue;
-		} catch (NumberFormatException e1) {
-			// Try and add an extra digit (ie 12e isn't valid but 12e3 is valid)
-			String newAmendedValue = newValue + "1";
-			try {
-				Double.parseDouble(newAmendedValue);
-				return newValue;
-			} catch (NumberFormatException e2) {
-				try {
-					// value is valid, but value + thisChar is no longer valid
-					// eg 14z, 24ft
-					Double.parseDouble(value);
-					return value;
-				} catch (NumberFormatException e3) {
-					// Invalid number eg 34e+A
-					return null;
-				}
-			}
-
+	private static NumberStates nextNumberState(NumberStates state, char ch) {
+		boolean digit = ch >= '0' && ch <= '9';
+		boolean exponent = ch == 'e' || ch == 'E';
+		boolean suffix = ch == 'f' || ch == 'F' || ch == 'd' || ch == 'D';
+		boolean space = ch <= ' ' && ch != '\n'; // As trimmed by parseDouble
+		switch (state) {
+		case DOT:
+			return digit ? NumberStates.FRACTION : null;
+		case INTEGER:
+			if (digit)
+				return NumberStates.INTEGER;
+			if (ch == '.')
+				return NumberStates.FRACTION;
+			if (exponent)
+				return NumberStates.EXPONENT;
+			if (suffix)
+				return NumberStates.SUFFIX;
+			return space ? NumberStates.TRAILING_SPACE : null;
+		case FRACTION:
+			if (digit)
+				return NumberStates.FRACTION;
+			if (exponent)
+				return NumberStates.EXPONENT;
+			if (suffix)
+				return NumberStates.SUFFIX;
+			return space ? NumberStates.TRAILING_SPACE : null;
+		case EXPONENT:
+			if (ch == '+' || ch == '-')
+				return NumberStates.EXPONENT_SIGN;
+			return digit ? NumberStates.EXPONENT_DIGITS : null;
+		case EXPONENT_SIGN:
+			return digit ? NumberStates.EXPONENT_DIGITS : null;
+		case EXPONENT_DIGITS:
+			if (digit)
+				return NumberStates.EXPONENT_DIGITS;
+			if (suffix)
+				return NumberStates.SUFFIX;
+			return space ? NumberStates.TRAILING_SPACE : null;
+		case SUFFIX:
+		case TRAILING_SPACE:
+			return space ? NumberStates.TRAILING_SPACE : null;
+		default:
+			return null;
 		}
 	}
 
 	/**
-	 * Creates a token, and sets previousToken to the newly created token
+	 * Determines whether a number that ends in the given state is a valid
+	 * number
 	 */
-	private Token createToken(TokenType type, String value) {
-		Token token = new Token(type, value);
-		this.previousToken = token;
-		return token;
+	private static boolean isCompleteNumber(NumberStates state) {
+		return state == NumberStates.INTEGER || state == NumberStates.FRACTION
+				|| state == NumberStates.EXPONENT_DIGITS || state == NumberStates.SUFFIX
+				|| state == NumberStates.TRAILING_SPACE;
 	}
 
 }
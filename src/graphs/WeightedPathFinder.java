@@ -0,0 +1,352 @@
+package graphs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Finds lightest paths in a graph, using numeric edge values as weights. The
+ * weights are parsed once, when the finder is created, from a snapshot of the
+ * graph; changes made to the graph afterwards are not seen.
+ *
+ * An edge whose value is a number (such as "-123" or "1.5e3") weighs that
+ * much. Any other edge, including an edge with an empty value, weighs 1.
+ *
+ * Paths are found with Dijkstra's algorithm, or A* if a heuristic is given.
+ * If any edge has a negative weight, the Bellman-Ford algorithm is used
+ * instead. When memory is short, findPathIterativeDeepening uses IDA*, which
+ * only keeps the path it is on.
+ *
+ * @author kevinlee
+ *
+ */
+public class WeightedPathFinder {
+
+    /** The weight of an edge whose value isn't a number. */
+    public static final double DEFAULT_WEIGHT = 1.0;
+
+    /**
+     * An estimate of the weight of the lightest path from a node to the
+     * finish node. For A* to find the lightest path, the estimate must never
+     * be more than the actual weight.
+     */
+    public interface Heuristic {
+
+        /**
+         * Estimates the weight of the lightest path from a node to the finish
+         * node
+         *
+         * @param node
+         *            The node
+         * @return The estimated weight, which must not be negative
+         */
+        double estimate(Node node);
+    }
+
+    private final CompactGraph graph;
+    private final double[] weights;
+    private final boolean negativeWeights;
+
+    /**
+     * Creates a finder for the current nodes and edges of a graph
+     *
+     * @param g
+     *            The graph
+     */
+    public WeightedPathFinder(Graph g) {
+        this(g.freeze());
+    }
+
+    /**
+     * Creates a finder for a snapshot of a graph
+     *
+     * @param g
+     *            The snapshot
+     */
+    public WeightedPathFinder(CompactGraph g) {
+        this.graph = g;
+        this.weights = new double[g.getEdgeCount()];
+        boolean negative = false;
+        for (int edge = 0; edge < weights.length; edge++) {
+            weights[edge] = getWeight(g.getEdgeValue(edge));
+            negative |= weights[edge] < 0;
+        }
+        this.negativeWeights = negative;
+    }
+
+    /**
+     * Returns the weight of an edge with the given value
+     *
+     * @param value
+     *            The value of the edge
+     * @return The number the value stands for, or DEFAULT_WEIGHT if it isn't
+     *         a number
+     */
+    public static double getWeight(Object value) {
+        if (value instanceof Number)
+            return ((Number) value).doubleValue();
+        String string = value.toString();
+        if (string.isEmpty())
+            return DEFAULT_WEIGHT;
+        char first = string.charAt(0);
+        if (!(first >= '0' && first <= '9') && first != '-' && first != '+' && first != '.')
+            return DEFAULT_WEIGHT; // Don't throw and catch for every name
+        try {
+            return Double.parseDouble(string);
+        } catch (NumberFormatException e) {
+            return DEFAULT_WEIGHT;
+        }
+    }
+
+    /**
+     * Returns the total weight of a path
+     *
+     * @param path
+     *            The edges of the path
+     * @return The sum of the weights of the edges
+     */
+    public static double getWeight(List<Edge> path) {
+        double weight = 0;
+        for (Edge edge : path) {
+            weight += getWeight(edge.getValue());
+        }
+        return weight;
+    }
+
+    /**
+     * Returns whether any edge has a negative weight, in which case paths are
+     * found with the Bellman-Ford algorithm
+     *
+     * @return true if there are negative weights
+     */
+    public boolean hasNegativeWeights() {
+        return negativeWeights;
+    }
+
+    /**
+     * Finds the lightest path between two nodes
+     *
+     * @param start
+     *            The node the path starts at
+     * @param finish
+     *            The node the path ends at
+     * @return The edges of the path, in order from the start node, or null if
+     *         there isn't a path
+     * @throws IllegalStateException
+     *             If a cycle of negative weight can be reached from the start
+     *             node, so that there is no lightest path
+     */
+    public List<Edge> findPath(Node start, Node finish) {
+        return findPath(start, finish, null);
+    }
+
+    /**
+     * Finds the lightest path between two nodes, using A* with the given
+     * heuristic. The heuristic is ignored if there are negative weights.
+     *
+     * @param start
+     *            The node the path starts at
+     * @param finish
+     *            The node the path ends at
+     * @param heuristic
+     *            The estimate of the distance to the finish node, or null to
+     *            use Dijkstra's algorithm
+     * @return The edges of the path, in order from the start node, or null if
+     *         there isn't a path
+     * @throws IllegalStateException
+     *             If a cycle of negative weight can be reached from the start
+     *             node, so that there is no lightest path
+     */
+    public List<Edge> findPath(Node start, Node finish, Heuristic heuristic) {
+        int from = graph.getId(start);
+        int to = graph.getId(finish);
+        if (from < 0 || to < 0)
+            throw new IllegalArgumentException("Node is not in the graph");
+
+        int[] reachedBy = new int[graph.getNodeCount()]; // edge number, or -1
+        Arrays.fill(reachedBy, -1);
+        int[] previousNode = new int[graph.getNodeCount()];
+        double[] distances = new double[graph.getNodeCount()];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        distances[from] = 0;
+
+        boolean found;
+        if (negativeWeights) {
+            found = bellmanFord(to, distances, reachedBy, previousNode);
+        } else {
+            found = search(from, to, heuristic, distances, reachedBy, previousNode);
+        }
+        if (!found)
+            return null;
+
+        List<Edge> path = new ArrayList<Edge>();
+        for (int node = to; node != from; node = previousNode[node]) {
+            path.add(graph.getEdge(reachedBy[node]));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Finds the lightest path between two nodes using IDA*: a depth-first
+     * search that is repeated with a growing bound on the path weight plus
+     * the heuristic's estimate. Only the current search path is kept, in
+     * arrays that grow with its length, so the memory used doesn't depend on
+     * the size of the graph; the heuristic is asked again each time a node is
+     * reached, rather than remembered.
+     *
+     * @param start
+     *            The node the path starts at
+     * @param finish
+     *            The node the path ends at
+     * @param heuristic
+     *            The estimate of the distance to the finish node, or null to
+     *            estimate 0 everywhere
+     * @return The edges of the path, in order from the start node, or null if
+     *         there isn't a path
+     * @throws IllegalStateException
+     *             If there are negative weights, which IDA* can't handle
+     */
+    public List<Edge> findPathIterativeDeepening(Node start, Node finish, Heuristic heuristic) {
+        int from = graph.getId(start);
+        int to = graph.getId(finish);
+        if (from < 0 || to < 0)
+            throw new IllegalArgumentException("Node is not in the graph");
+        if (negativeWeights)
+            throw new IllegalStateException("Iterative deepening needs non-negative weights");
+
+        int[] nodes = new int[16]; // the nodes on the search path
+        int[] nextEdges = new int[16]; // the next edge to follow out of each
+        double[] costs = new double[16]; // the weight of the path to each
+        double bound = heuristic == null ? 0 : heuristic.estimate(start);
+
+        while (true) {
+            double nextBound = Double.POSITIVE_INFINITY; // the lowest estimate
+                                                         // over the bound
+            int depth = 0;
+            nodes[0] = from;
+            nextEdges[0] = graph.getFirstEdge(from);
+            costs[0] = 0;
+            while (depth >= 0) {
+                int node = nodes[depth];
+                if (node == to) {
+                    List<Edge> path = new ArrayList<Edge>(depth);
+                    for (int i = 0; i < depth; i++) {
+                        path.add(graph.getEdge(nextEdges[i] - 1));
+                    }
+                    return path;
+                }
+                if (nextEdges[depth] == graph.getFirstEdge(node + 1)) { // Back up
+                    depth--;
+                    continue;
+                }
+                int edge = nextEdges[depth]++;
+                int next = graph.getTarget(edge);
+                double cost = costs[depth] + weights[edge];
+                double estimate = cost + (heuristic == null ? 0 : heuristic.estimate(graph.getNode(next)));
+                if (estimate > bound) {
+                    nextBound = Math.min(nextBound, estimate);
+                    continue;
+                }
+                boolean onPath = false;
+                for (int i = 0; i <= depth && !onPath; i++) {
+                    onPath = nodes[i] == next;
+                }
+                if (onPath)
+                    continue;
+                if (++depth == nodes.length) {
+                    nodes = Arrays.copyOf(nodes, depth * 2);
+                    nextEdges = Arrays.copyOf(nextEdges, depth * 2);
+                    costs = Arrays.copyOf(costs, depth * 2);
+                }
+                nodes[depth] = next;
+                nextEdges[depth] = graph.getFirstEdge(next);
+                costs[depth] = cost;
+            }
+            if (nextBound == Double.POSITIVE_INFINITY) // Nothing was cut off
+                return null;
+            bound = nextBound;
+        }
+    }
+
+    /**
+     * Runs Dijkstra's algorithm, or A* if there is a heuristic, until the
+     * finish node is taken off the heap. Nodes can be reopened if a heuristic
+     * underestimates unevenly.
+     *
+     * @return true if the finish node can be reached
+     */
+    private boolean search(int start, int finish, Heuristic heuristic, double[] distances, int[] reachedBy,
+            int[] previousNode) {
+        double[] estimates = null;
+        if (heuristic != null) {
+            estimates = new double[graph.getNodeCount()];
+            Arrays.fill(estimates, Double.NaN); // Estimated when first reached
+        }
+
+        IndexedHeap heap = new IndexedHeap(graph.getNodeCount());
+        heap.offer(start, estimate(start, heuristic, estimates));
+
+        while (!heap.isEmpty()) {
+            int node = heap.poll();
+            if (node == finish)
+                return true;
+            for (int edge = graph.getFirstEdge(node); edge < graph.getFirstEdge(node + 1); edge++) {
+                int next = graph.getTarget(edge);
+                double distance = distances[node] + weights[edge];
+                if (distance < distances[next]) {
+                    distances[next] = distance;
+                    reachedBy[next] = edge;
+                    previousNode[next] = node;
+                    heap.offer(next, distance + estimate(next, heuristic, estimates));
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the heuristic's estimate for a node, asking for it only once
+     */
+    private double estimate(int node, Heuristic heuristic, double[] estimates) {
+        if (heuristic == null)
+            return 0;
+        if (Double.isNaN(estimates[node])) {
+            estimates[node] = heuristic.estimate(graph.getNode(node));
+        }
+        return estimates[node];
+    }
+
+    /**
+     * Runs the Bellman-Ford algorithm over every edge, stopping early if a
+     * round changes nothing
+     *
+     * @return true if the finish node can be reached
+     */
+    private boolean bellmanFord(int finish, double[] distances, int[] reachedBy, int[] previousNode) {
+        int nodeCount = graph.getNodeCount();
+        for (int round = 0; round <= nodeCount; round++) {
+            boolean changed = false;
+            for (int node = 0; node < nodeCount; node++) {
+                if (distances[node] == Double.POSITIVE_INFINITY)
+                    continue;
+                for (int edge = graph.getFirstEdge(node); edge < graph.getFirstEdge(node + 1); edge++) {
+                    int next = graph.getTarget(edge);
+                    double distance = distances[node] + weights[edge];
+                    if (distance < distances[next]) {
+                        distances[next] = distance;
+                        reachedBy[next] = edge;
+                        previousNode[next] = node;
+                        changed = true;
+                    }
+                }
+            }
+            if (!changed)
+                return distances[finish] != Double.POSITIVE_INFINITY;
+        }
+        // Still changing after every path could have been found
+        throw new IllegalStateException("Negative cycle reachable from start node");
+    }
+
+}
@@ -0,0 +1,30 @@
+package mazes;
+
+/**
+ * A flag that one thread can set to ask a traversal running in another thread
+ * to stop early
+ * 
+ * @author kevinlee
+ * 
+ */
+public class CancellationToken {
+
+    private volatile boolean cancelled = false;
+
+    /**
+     * Asks every traversal using this token to stop
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Returns whether cancel has been called
+     * 
+     * @return true if traversals should stop
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+}
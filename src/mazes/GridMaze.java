@@ -0,0 +1,542 @@
+package mazes;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import graphs.Edge;
+import graphs.Graph;
+import graphs.IndexedGraph;
+import graphs.Node;
+
+/**
+ * A maze on a rectangular grid of cells, where each cell can be joined to the
+ * cells north, east, south and west of it. Only whether each passage is open
+ * is stored, as two bits per cell, and the neighbours of a cell are worked
+ * out from those bits when they are asked for. A new maze has every wall up.
+ *
+ * As an IndexedGraph, cell (x, y) is node y * width + x. Its value is "start"
+ * or "finish" for the start and finish cells, or "c" + x + "_" + y for any
+ * other cell. Each open passage is an edge both ways, whose value is the
+ * direction it goes in ("N", "E", "S" or "W"), and the edges of a cell are
+ * numbered in that order.
+ *
+ * @author kevinlee
+ *
+ */
+public class GridMaze implements IndexedGraph {
+
+    /**
+     * The directions passages can go in
+     */
+    public enum Direction {
+        N(0, -1), E(1, 0), S(0, 1), W(-1, 0);
+
+        private final int dx;
+        private final int dy;
+
+        private Direction(int dx, int dy) {
+            this.dx = dx;
+            this.dy = dy;
+        }
+
+        /**
+         * Returns how far east a step in this direction goes
+         *
+         * @return -1, 0 or 1
+         */
+        public int getDx() {
+            return dx;
+        }
+
+        /**
+         * Returns how far south a step in this direction goes
+         *
+         * @return -1, 0 or 1
+         */
+        public int getDy() {
+            return dy;
+        }
+    }
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final int width;
+    private final int height;
+    private final long[] openEast; // by cell id, whether there is a passage
+                                   // to the cell east of it
+    private final long[] openSouth; // and to the cell south of it
+    private int start;
+    private int finish;
+
+    /**
+     * Creates a maze with every wall up, starting at the top left cell and
+     * finishing at the bottom right cell
+     *
+     * @param width
+     *            The number of cells across
+     * @param height
+     *            The number of cells down
+     */
+    public GridMaze(int width, int height) {
+        if (width < 1 || height < 1 || (long) width * height > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Invalid maze size " + width + " x " + height);
+        this.width = width;
+        this.height = height;
+        int words = (int) (((long) width * height + 63) >>> 6);
+        this.openEast = new long[words];
+        this.openSouth = new long[words];
+        this.start = 0;
+        this.finish = width * height - 1;
+    }
+
+    /**
+     * Returns the number of cells across
+     *
+     * @return The width
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the number of cells down
+     *
+     * @return The height
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the node id of a cell
+     *
+     * @param x
+     *            The column of the cell, from 0 (west) to width - 1
+     * @param y
+     *            The row of the cell, from 0 (north) to height - 1
+     * @return The id of the cell
+     */
+    public int getId(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height)
+            throw new IndexOutOfBoundsException("No cell at " + x + ", " + y);
+        return y * width + x;
+    }
+
+    /**
+     * Returns the column of a cell
+     *
+     * @param node
+     *            The id of the cell
+     * @return The column
+     */
+    public int getX(int node) {
+        return node % width;
+    }
+
+    /**
+     * Returns the row of a cell
+     *
+     * @param node
+     *            The id of the cell
+     * @return The row
+     */
+    public int getY(int node) {
+        return node / width;
+    }
+
+    /**
+     * Returns the id of the start cell
+     *
+     * @return The id of the cell
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * Makes a cell the start cell
+     *
+     * @param x
+     *            The column of the cell
+     * @param y
+     *            The row of the cell
+     */
+    public void setStart(int x, int y) {
+        start = getId(x, y);
+    }
+
+    /**
+     * Returns the id of the finish cell
+     *
+     * @return The id of the cell
+     */
+    public int getFinish() {
+        return finish;
+    }
+
+    /**
+     * Makes a cell the finish cell
+     *
+     * @param x
+     *            The column of the cell
+     * @param y
+     *            The row of the cell
+     */
+    public void setFinish(int x, int y) {
+        finish = getId(x, y);
+    }
+
+    /**
+     * Determines whether there is a passage out of a cell in a direction
+     *
+     * @param x
+     *            The column of the cell
+     * @param y
+     *            The row of the cell
+     * @param direction
+     *            The direction of the passage
+     * @return true if the passage is open, false if there is a wall or the
+     *         edge of the maze
+     */
+    public boolean isOpen(int x, int y, Direction direction) {
+        getId(x, y);
+        return isOpen(x, y, direction.ordinal());
+    }
+
+    /**
+     * Opens or closes the passage out of a cell in a direction. The passage
+     * is the same one as out of the neighbouring cell in the opposite
+     * direction.
+     *
+     * @param x
+     *            The column of the cell
+     * @param y
+     *            The row of the cell
+     * @param direction
+     *            The direction of the passage
+     * @param open
+     *            true to open the passage, false to put up a wall
+     * @throws IndexOutOfBoundsException
+     *             If the passage would lead out of the maze
+     */
+    public void setOpen(int x, int y, Direction direction, boolean open) {
+        int toX = x + direction.dx;
+        int toY = y + direction.dy;
+        getId(x, y);
+        getId(toX, toY); // The outside walls can't be opened
+
+        // Passages are stored on their west or north cell
+        long[] bits = direction == Direction.E || direction == Direction.W ? openEast : openSouth;
+        int cell = Math.min(y * width + x, toY * width + toX);
+        if (open) {
+            bits[cell >>> 6] |= 1L << cell;
+        } else {
+            bits[cell >>> 6] &= ~(1L << cell);
+        }
+    }
+
+    /**
+     * Determines whether there is a passage out of a cell in a direction,
+     * given by its ordinal
+     */
+    private boolean isOpen(int x, int y, int direction) {
+        switch (direction) {
+        case 0: // N
+            return y > 0 && isSet(openSouth, (y - 1) * width + x);
+        case 1: // E
+            return x < width - 1 && isSet(openEast, y * width + x);
+        case 2: // S
+            return y < height - 1 && isSet(openSouth, y * width + x);
+        default: // W
+            return x > 0 && isSet(openEast, y * width + x - 1);
+        }
+    }
+
+    /**
+     * Returns a bit of a bitset
+     */
+    private static boolean isSet(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Returns the open passages out of a cell, as a bit for each direction by
+     * its ordinal. The outside walls are never opened, so the passages can be
+     * read straight from the bitsets by cell id, without working out the
+     * cell's row and column: the cell west of the first cell of a row is the
+     * last cell of the row above, which has no passage east.
+     */
+    private int getOpenDirections(int node) {
+        int open = 0;
+        if (node >= width && isSet(openSouth, node - width))
+            open |= 1; // N
+        if (isSet(openEast, node))
+            open |= 2; // E
+        if (isSet(openSouth, node))
+            open |= 4; // S
+        if (node > 0 && isSet(openEast, node - 1))
+            open |= 8; // W
+        return open;
+    }
+
+    /**
+     * Returns the direction of one of a cell's open passages, by its ordinal
+     */
+    private int getDirection(int node, int index) {
+        int open = getOpenDirections(node);
+        for (int i = 0; i < index; i++) {
+            open &= open - 1; // Drop the first open direction
+        }
+        if (index < 0 || open == 0)
+            throw new IndexOutOfBoundsException("No edge " + index + " out of node " + node);
+        return Integer.numberOfTrailingZeros(open);
+    }
+
+    @Override
+    public int getNodeCount() {
+        return width * height;
+    }
+
+    @Override
+    public Object getNodeValue(int node) {
+        if (node == start)
+            return "start";
+        if (node == finish)
+            return "finish";
+        return "c" + (node % width) + "_" + (node / width);
+    }
+
+    @Override
+    public int getStartNode() {
+        return start;
+    }
+
+    /**
+     * Returns the finish cell, or -1 if it is also the start cell, which is
+     * named "start"
+     */
+    @Override
+    public int getFinishNode() {
+        return finish == start ? -1 : finish;
+    }
+
+    @Override
+    public int getOutDegree(int node) {
+        return Integer.bitCount(getOpenDirections(node));
+    }
+
+    @Override
+    public int getNeighbour(int node, int index) {
+        switch (getDirection(node, index)) {
+        case 0: // N
+            return node - width;
+        case 1: // E
+            return node + 1;
+        case 2: // S
+            return node + width;
+        default: // W
+            return node - 1;
+        }
+    }
+
+    @Override
+    public Object getEdgeValue(int node, int index) {
+        return DIRECTIONS[getDirection(node, index)].name();
+    }
+
+    /**
+     * Returns a Graph with a node for each cell and an edge each way through
+     * each open passage, with the same values as this maze gives them
+     *
+     * @param name
+     *            The value (name) of the graph
+     * @return The new Graph
+     */
+    public Graph toGraph(Object name) {
+        Graph g = new Graph(name);
+        Node[] nodes = new Node[getNodeCount()];
+        for (int node = 0; node < nodes.length; node++) {
+            nodes[node] = new Node(getNodeValue(node), g);
+        }
+        for (int node = 0; node < nodes.length; node++) {
+            int x = node % width;
+            int y = node / width;
+            for (int direction = 0; direction < 4; direction++) {
+                if (isOpen(x, y, direction)) {
+                    Direction d = DIRECTIONS[direction];
+                    new Edge(nodes[node], d.name(), nodes[node + d.dy * width + d.dx]);
+                }
+            }
+        }
+        return g;
+    }
+
+    /**
+     * Creates a maze from a graph in the form toGraph gives: cells named "c"
+     * + x + "_" + y, a "start" and a "finish" cell, and edges named "N", "E",
+     * "S" or "W" between neighbouring cells. The positions of the start and
+     * finish cells are worked out from their edges. An edge in one direction
+     * is enough to open the passage both ways. Nodes and edges with other
+     * values are ignored.
+     *
+     * @param g
+     *            The graph
+     * @param width
+     *            The number of cells across
+     * @param height
+     *            The number of cells down
+     * @return The new maze
+     * @throws IllegalArgumentException
+     *             If a cell is outside the maze, an edge joins cells that
+     *             aren't neighbours in its direction, or the start or finish
+     *             cell can't be placed
+     */
+    public static GridMaze fromGraph(Graph g, int width, int height) {
+        GridMaze maze = new GridMaze(width, height);
+
+        // Place the named cells, then place the start and finish cells from
+        // the edges joining them to cells already placed
+        Map<Node, Integer> cells = new HashMap<Node, Integer>();
+        Node start = null;
+        Node finish = null;
+        for (Node node : g.getNodeView()) {
+            String value = node.getValue().toString();
+            if (value.toLowerCase().equals("start")) {
+                start = node;
+            } else if (value.toLowerCase().equals("finish")) {
+                finish = node;
+            } else {
+                int[] position = parseCell(value);
+                if (position == null)
+                    continue;
+                if (position[0] < 0 || position[0] >= width || position[1] < 0 || position[1] >= height)
+                    throw new IllegalArgumentException("Cell " + value + " is outside the maze");
+                cells.put(node, maze.getId(position[0], position[1]));
+            }
+        }
+        boolean placed = true;
+        while (placed) {
+            placed = false;
+            for (Node node : new Node[] { start, finish }) {
+                if (node != null && !cells.containsKey(node)) {
+                    int cell = maze.placeFromEdges(node, cells);
+                    if (cell >= 0) {
+                        cells.put(node, cell);
+                        placed = true;
+                    }
+                }
+            }
+        }
+        if (start == null || !cells.containsKey(start) || finish == null || !cells.containsKey(finish))
+            throw new IllegalArgumentException("Can't place the start and finish cells");
+        maze.start = cells.get(start);
+        maze.finish = cells.get(finish);
+
+        // Open a passage for each edge between cells
+        for (Map.Entry<Node, Integer> entry : cells.entrySet()) {
+            int from = entry.getValue();
+            for (Edge edge : entry.getKey().getOutpointingEdgeView()) {
+                Direction direction = parseDirection(edge.getValue());
+                Integer to = cells.get(edge.getDestination());
+                if (direction == null || to == null)
+                    continue;
+                if (maze.step(from, direction) != to)
+                    throw new IllegalArgumentException("Edge " + edge.getOrigin() + edge + edge.getDestination()
+                            + " doesn't join neighbouring cells");
+                maze.setOpen(maze.getX(from), maze.getY(from), direction, true);
+            }
+        }
+        return maze;
+    }
+
+    /**
+     * Works out where a node is from an edge joining it to a cell already
+     * placed
+     *
+     * @return The id of the cell, or -1 if none of its edges tell
+     */
+    private int placeFromEdges(Node node, Map<Node, Integer> cells) {
+        for (Edge edge : node.getOutpointingEdgeView()) {
+            Direction direction = parseDirection(edge.getValue());
+            Integer to = cells.get(edge.getDestination());
+            if (direction != null && to != null)
+                return step(to, DIRECTIONS[(direction.ordinal() + 2) % 4]);
+        }
+        for (Edge edge : node.getInpointingEdgeView()) {
+            Direction direction = parseDirection(edge.getValue());
+            Integer from = cells.get(edge.getOrigin());
+            if (direction != null && from != null)
+                return step(from, direction);
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the cell next to a cell in a direction
+     *
+     * @throws IllegalArgumentException
+     *             If that is outside the maze
+     */
+    private int step(int node, Direction direction) {
+        int x = node % width + direction.dx;
+        int y = node / width + direction.dy;
+        if (x < 0 || x >= width || y < 0 || y >= height)
+            throw new IllegalArgumentException("Edge " + direction + " leads out of the maze");
+        return y * width + x;
+    }
+
+    /**
+     * Reads the position of a cell from a value of the form "c" + x + "_" +
+     * y
+     *
+     * @return The column and row, or null if the value isn't of that form
+     */
+    private static int[] parseCell(String value) {
+        int separator = value.indexOf('_');
+        if (!value.startsWith("c") || separator < 2)
+            return null;
+        try {
+            return new int[] { Integer.parseInt(value.substring(1, separator)),
+                    Integer.parseInt(value.substring(separator + 1)) };
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads a direction from an edge value
+     *
+     * @return The direction, or null if the value isn't one
+     */
+    private static Direction parseDirection(Object value) {
+        String string = value.toString();
+        for (Direction direction : DIRECTIONS) {
+            if (direction.name().equals(string))
+                return direction;
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder str = new StringBuilder();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                str.append(isOpen(x, y, 0) ? "+ " : "+-");
+            }
+            str.append("+\n");
+            for (int x = 0; x < width; x++) {
+                int node = y * width + x;
+                str.append(isOpen(x, y, 3) ? ' ' : '|');
+                str.append(node == start ? 'S' : node == finish ? 'F' : ' ');
+            }
+            str.append("|\n");
+        }
+        for (int x = 0; x < width; x++) {
+            str.append("+-");
+        }
+        str.append("+");
+        return str.toString();
+    }
+
+}
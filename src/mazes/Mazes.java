@@ -4,7 +4,16 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Scanner;
 import java.util.Set;
 import java.util.Stack;
@@ -12,8 +21,12 @@ import java.util.Stack;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 
+import graphs.CompactGraph;
 import graphs.Graph;
+import graphs.IndexedGraph;
+import graphs.IterativeDeepeningSearch;
 import graphs.Node;
+import graphs.ParallelBreadthFirstSearch;
 import graphs.Edge;
 import graphs.Plex;
 
@@ -55,7 +68,7 @@ public class Mazes {
                     System.out.println("\nThis is the graph:");
                     g.print();
                     System.out.println("\n\nThis is the path:");
-                    System.out.println(traverseGraph(g));
+                    System.out.println(pathToString(findShortestPath(g)));
                 }
             }
         }
@@ -80,7 +93,7 @@ public class Mazes {
         Stack<Edge> edgeStack = new Stack<Edge>();
         Set<Edge> traversedEdgeSet = new HashSet<Edge>();
 
-        for (Edge edge : start.getOutpointingEdges()) {
+        for (Edge edge : start.getOutpointingEdgeView()) {
 
             if (!traversedEdgeSet.contains(edge)) {
                 edgeStack.push(edge);
@@ -103,7 +116,7 @@ public class Mazes {
 
             // Put the outpointing edges on the stack, but only if edge isn't
             // already in the set of already-traversed edges
-            Set<Edge> edges = toNode.getOutpointingEdges();
+            Set<Edge> edges = toNode.getOutpointingEdgeView();
             for (Edge newEdge : edges) {
                 if (!traversedEdgeSet.contains(newEdge)) {
                     traversedEdgeSet.add(newEdge);
@@ -115,6 +128,483 @@ public class Mazes {
 
     }
 
+    /**
+     * Finds a shortest path (in number of edges) from the start node to the
+     * finish node, using breadth-first-search. The search stops as soon as it
+     * reaches the finish node.
+     *
+     * @param g
+     *            Graph to search
+     * @return The edges of the path, in order from the start node, or null if
+     *         there isn't a path
+     */
+    public List<Edge> findShortestPath(Graph g) {
+        return findShortestPath(g, new TraversalOptions()).getPath();
+    }
+
+    /**
+     * Finds a shortest path (in number of edges) from the start node to the
+     * finish node, using breadth-first-search, stopping early if the options'
+     * budgets, deadline or cancellation token say so
+     *
+     * @param g
+     *            Graph to search
+     * @param options
+     *            The limits on the search
+     * @return The outcome of the search, with the edges of the path in order
+     *         from the start node if one was found
+     */
+    public TraversalResult findShortestPath(Graph g, TraversalOptions options) {
+        Limits limits = new Limits(options);
+        Node start = getStartNode(g);
+        if (start == null)
+            return limits.result(TraversalResult.Status.NOT_FOUND, null);
+
+        // The edge by which each node was first reached. The start node is
+        // reached by no edge.
+        Map<Node, Edge> reachedBy = new HashMap<Node, Edge>();
+        reachedBy.put(start, null);
+        Queue<Node> queue = new ArrayDeque<Node>();
+        queue.add(start);
+
+        while (!queue.isEmpty()) {
+            TraversalResult.Status stop = limits.expandNode();
+            if (stop != null)
+                return limits.result(stop, null);
+            Node node = queue.remove();
+            for (Edge edge : node.getOutpointingEdgeView()) {
+                stop = limits.followEdge();
+                if (stop != null)
+                    return limits.result(stop, null);
+                Node toNode = edge.getDestination();
+                if (reachedBy.containsKey(toNode))
+                    continue;
+                reachedBy.put(toNode, edge);
+
+                // Check if it's the goal node
+                if (isFinish(toNode.getValue())) {
+                    List<Edge> path = new ArrayList<Edge>();
+                    for (Edge back = edge; back != null; back = reachedBy.get(back.getOrigin())) {
+                        path.add(back);
+                    }
+                    Collections.reverse(path);
+                    return limits.result(TraversalResult.Status.FOUND, path);
+                }
+                queue.add(toNode);
+            }
+        }
+        return limits.result(TraversalResult.Status.NOT_FOUND, null);
+    }
+
+    /**
+     * Finds a shortest path (in number of edges) from the start node to the
+     * finish node of a snapshot, using breadth-first-search. Works like
+     * findShortestPath(Graph), but keeps the queue and the links back along
+     * the path in int arrays.
+     *
+     * @param g
+     *            Graph to search
+     * @return The edges of the path, in order from the start node, or null if
+     *         there isn't a path
+     */
+    public List<Edge> findShortestPath(CompactGraph g) {
+        return findShortestPath(g, new TraversalOptions()).getPath();
+    }
+
+    /**
+     * Finds a shortest path (in number of edges) from the start node to the
+     * finish node of a snapshot, using breadth-first-search, stopping early
+     * if the options' budgets, deadline or cancellation token say so
+     *
+     * @param g
+     *            Graph to search
+     * @param options
+     *            The limits on the search
+     * @return The outcome of the search, with the edges of the path in order
+     *         from the start node if one was found
+     */
+    public TraversalResult findShortestPath(CompactGraph g, TraversalOptions options) {
+        Limits limits = new Limits(options);
+        int start = getStartNode(g);
+        if (start < 0)
+            return limits.result(TraversalResult.Status.NOT_FOUND, null);
+
+        // The edge by which each node was first reached, or -1
+        int[] reachedBy = new int[g.getNodeCount()];
+        Arrays.fill(reachedBy, -1);
+        int[] previousNode = new int[g.getNodeCount()];
+        boolean[] visited = new boolean[g.getNodeCount()];
+        int[] queue = new int[g.getNodeCount()];
+        int head = 0;
+        int tail = 0;
+        visited[start] = true;
+        queue[tail++] = start;
+
+        while (head < tail) {
+            TraversalResult.Status stop = limits.expandNode();
+            if (stop != null)
+                return limits.result(stop, null);
+            int node = queue[head++];
+            for (int edge = g.getFirstEdge(node); edge < g.getFirstEdge(node + 1); edge++) {
+                stop = limits.followEdge();
+                if (stop != null)
+                    return limits.result(stop, null);
+                int toNode = g.getTarget(edge);
+                if (visited[toNode])
+                    continue;
+                visited[toNode] = true;
+                reachedBy[toNode] = edge;
+                previousNode[toNode] = node;
+
+                // Check if it's the goal node
+                if (isFinish(g.getNodeValue(toNode))) {
+                    List<Edge> path = new ArrayList<Edge>();
+                    for (int back = toNode; back != start; back = previousNode[back]) {
+                        path.add(g.getEdge(reachedBy[back]));
+                    }
+                    Collections.reverse(path);
+                    return limits.result(TraversalResult.Status.FOUND, path);
+                }
+                queue[tail++] = toNode;
+            }
+        }
+        return limits.result(TraversalResult.Status.NOT_FOUND, null);
+    }
+
+    /**
+     * Counts the work done by a traversal against the limits in its options.
+     * The budgets are checked at every step, and the deadline and
+     * cancellation token every CHECK_INTERVAL steps, since reading the clock
+     * costs more.
+     */
+    private static class Limits {
+        private static final int CHECK_INTERVAL = 1024;
+
+        private final TraversalOptions options;
+        private final long started = System.nanoTime();
+        private long nodesExpanded = 0;
+        private long edgesFollowed = 0;
+        private int untilCheck = 0;
+
+        Limits(TraversalOptions options) {
+            this.options = options;
+        }
+
+        /**
+         * Counts a node being expanded
+         *
+         * @return The reason to stop, or null to go on
+         */
+        TraversalResult.Status expandNode() {
+            if (nodesExpanded >= options.getNodeBudget())
+                return TraversalResult.Status.BUDGET_EXHAUSTED;
+            nodesExpanded++;
+            return step();
+        }
+
+        /**
+         * Counts an edge being followed
+         *
+         * @return The reason to stop, or null to go on
+         */
+        TraversalResult.Status followEdge() {
+            if (edgesFollowed >= options.getEdgeBudget())
+                return TraversalResult.Status.BUDGET_EXHAUSTED;
+            edgesFollowed++;
+            return step();
+        }
+
+        /**
+         * Checks the deadline and cancellation token every CHECK_INTERVAL
+         * steps, starting with the first
+         */
+        private TraversalResult.Status step() {
+            if (untilCheck-- > 0)
+                return null;
+            untilCheck = CHECK_INTERVAL - 1;
+            CancellationToken token = options.getCancellationToken();
+            if (token != null && token.isCancelled())
+                return TraversalResult.Status.CANCELLED;
+            if (options.hasDeadline() && System.nanoTime() - options.getDeadline() >= 0)
+                return TraversalResult.Status.DEADLINE_EXCEEDED;
+            return null;
+        }
+
+        /**
+         * Returns the result of the traversal, with the work done so far
+         */
+        TraversalResult result(TraversalResult.Status status, List<Edge> path) {
+            return new TraversalResult(status, path, nodesExpanded, edgesFollowed, System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * Finds a shortest path (in number of edges) from the start node to a
+     * finish node, using a breadth-first-search forward from the start node
+     * and another backward from the finish nodes along inpointing edges. The
+     * smaller of the two frontiers is expanded a level at a time, and the
+     * search stops at the end of the first level on which the two searches
+     * meet. Gives a path of the same length as findShortestPath(Graph), while
+     * usually visiting far fewer nodes.
+     *
+     * @param g
+     *            Graph to search
+     * @return The edges of the path, in order from the start node, or null if
+     *         there isn't a path
+     */
+    public List<Edge> findShortestPathBidirectional(Graph g) {
+        Node start = getStartNode(g);
+        if (start == null)
+            return null;
+
+        Search forward = new Search(true);
+        forward.reach(start, null, 0);
+        Search backward = new Search(false);
+        for (Node node : g.getNodeView()) {
+            if (isFinish(node.getValue()))
+                backward.reach(node, null, 0);
+        }
+
+        while (!forward.frontier.isEmpty() && !backward.frontier.isEmpty()) {
+            Node meeting;
+            if (forward.frontier.size() <= backward.frontier.size()) {
+                meeting = forward.expand(backward);
+            } else {
+                meeting = backward.expand(forward);
+            }
+            if (meeting != null) {
+                List<Edge> path = new ArrayList<Edge>();
+                for (Edge edge = forward.reachedBy.get(meeting); edge != null; edge = forward.reachedBy
+                        .get(edge.getOrigin())) {
+                    path.add(edge);
+                }
+                Collections.reverse(path);
+                for (Edge edge = backward.reachedBy.get(meeting); edge != null; edge = backward.reachedBy
+                        .get(edge.getDestination())) {
+                    path.add(edge);
+                }
+                return path;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * One direction of a bidirectional search
+     */
+    private static class Search {
+        private final boolean forward;
+        private Map<Node, Edge> reachedBy = new HashMap<Node, Edge>();
+        private Map<Node, Integer> depth = new HashMap<Node, Integer>();
+        private List<Node> frontier = new ArrayList<Node>();
+
+        Search(boolean forward) {
+            this.forward = forward;
+        }
+
+        /**
+         * Marks a node as reached by an edge, and adds it to the frontier
+         */
+        void reach(Node node, Edge edge, int nodeDepth) {
+            reachedBy.put(node, edge);
+            depth.put(node, nodeDepth);
+            frontier.add(node);
+        }
+
+        /**
+         * Expands every node in the frontier by one edge
+         *
+         * @return The node where this search meets the other search on the
+         *         shortest path, or null if they haven't met yet
+         */
+        Node expand(Search other) {
+            List<Node> current = frontier;
+            frontier = new ArrayList<Node>();
+            Node meeting = null;
+            int shortest = Integer.MAX_VALUE;
+            for (Node node : current) {
+                int nextDepth = depth.get(node) + 1;
+                Set<Edge> edges = forward ? node.getOutpointingEdgeView() : node.getInpointingEdgeView();
+                for (Edge edge : edges) {
+                    Node next = forward ? edge.getDestination() : edge.getOrigin();
+                    if (reachedBy.containsKey(next))
+                        continue;
+                    reach(next, edge, nextDepth);
+                    Integer otherDepth = other.depth.get(next);
+                    if (otherDepth != null && nextDepth + otherDepth < shortest) {
+                        meeting = next;
+                        shortest = nextDepth + otherDepth;
+                    }
+                }
+            }
+            return meeting;
+        }
+    }
+
+    /**
+     * Finds how many edges each node of a snapshot is from the start node,
+     * using a parallel breadth-first-search on the common pool
+     *
+     * @param g
+     *            Graph to search
+     * @return The distance of each node from the start node, by id, or -1 for
+     *         nodes that can't be reached, or null if there is no start node
+     */
+    public int[] getDistancesFromStart(CompactGraph g) {
+        int start = getStartNode(g);
+        if (start < 0)
+            return null;
+        return new ParallelBreadthFirstSearch().search(g, start);
+    }
+
+    /**
+     * Returns the string representation of a path, with one edge per line
+     *
+     * @param path
+     *            The edges of the path, or null if there isn't one
+     * @return The string representation of the path, or an indication that
+     *         there isn't one
+     */
+    public String pathToString(List<Edge> path) {
+        if (path == null)
+            return "No path exists";
+        StringBuilder str = new StringBuilder();
+        for (Edge edge : path) {
+            str.append(edge.getOrigin().toString());
+            str.append(edge.toString());
+            str.append(edge.getDestination().toString() + '\n');
+        }
+        return str.toString();
+    }
+
+    /**
+     * Traverses an indexed graph (such as a CompactGraph snapshot or a
+     * MappedGraph) using depth-first-search, and seeks the 'finish' node. Works
+     * like traverseGraph(Graph), but only uses node ids while searching: the
+     * start and finish nodes are looked up once, and each node is marked in a
+     * bitset when an edge to it is first put on the stack, so it is reached
+     * only once. Values are only looked up to write the path.
+     *
+     * @param g
+     *            Graph to traverse
+     * @return The string representation of the path that is taken to get to the
+     *         finish node, or indicate that there isn't one.
+     */
+    public String traverseGraph(IndexedGraph g) {
+        int start = g.getStartNode();
+        int finish = g.getFinishNode();
+        StringBuilder str = new StringBuilder();
+        if (start < 0 || finish < 0)
+            return "No path exists";
+
+        // Stack of (origin, edge index) pairs for DFS, and the nodes that an
+        // edge on the stack already leads to
+        int[] edgeStack = new int[16];
+        int stackSize = 0;
+        BitSet reached = new BitSet(g.getNodeCount());
+        reached.set(start);
+        int toNode = start;
+
+        while (true) {
+            for (int i = g.getOutDegree(toNode) - 1; i >= 0; i--) {
+                int next = g.getNeighbour(toNode, i);
+                if (!reached.get(next)) {
+                    reached.set(next);
+                    edgeStack = push(edgeStack, stackSize, toNode, i);
+                    stackSize += 2;
+                }
+            }
+            if (stackSize == 0)
+                return "No path exists";
+
+            int index = edgeStack[--stackSize];
+            int fromNode = edgeStack[--stackSize];
+            toNode = g.getNeighbour(fromNode, index);
+            str.append(g.getNodeValue(fromNode).toString());
+            str.append(" -- ").append(g.getEdgeValue(fromNode, index).toString()).append(" --> ");
+            str.append(g.getNodeValue(toNode).toString()).append('\n');
+
+            // Check if it's the goal node
+            if (toNode == finish) {
+                return str.toString();
+            }
+        }
+    }
+
+    /**
+     * Finds a shortest path (in number of edges) from the start node to the
+     * finish node of an indexed graph, using iterative-deepening
+     * depth-first-search. Unlike traverseGraph, the memory used depends only
+     * on maxDepth, not on the size of the graph.
+     *
+     * @param g
+     *            Graph to traverse
+     * @param maxDepth
+     *            The most edges the path may have
+     * @return The string representation of the path, or an indication that
+     *         there isn't one of at most maxDepth edges
+     */
+    public String traverseGraphIterativeDeepening(IndexedGraph g, int maxDepth) {
+        int start = getStartNode(g);
+        int finish = getFinishNode(g);
+        IterativeDeepeningSearch search = new IterativeDeepeningSearch(g);
+        if (start < 0 || finish < 0 || !search.search(start, finish, maxDepth))
+            return "No path exists";
+
+        StringBuilder str = new StringBuilder();
+        for (int i = 0; i < search.getDepth(); i++) {
+            int fromNode = search.getPathNode(i);
+            str.append(g.getNodeValue(fromNode).toString());
+            str.append(" -- ").append(g.getEdgeValue(fromNode, search.getPathEdge(i)).toString()).append(" --> ");
+            str.append(g.getNodeValue(search.getPathNode(i + 1)).toString()).append('\n');
+        }
+        return str.toString();
+    }
+
+    /**
+     * Pushes an (origin, edge index) pair on an int stack, growing the stack
+     * if it is full
+     *
+     * @return The stack, which may be a new, larger array
+     */
+    private static int[] push(int[] stack, int size, int origin, int edge) {
+        if (size + 2 > stack.length) {
+            stack = Arrays.copyOf(stack, stack.length * 2);
+        }
+        stack[size] = origin;
+        stack[size + 1] = edge;
+        return stack;
+    }
+
+    /**
+     * From an indexed graph, returns the id of the start node.
+     *
+     * @param g
+     *            Graph with the maze
+     * @return the id of the Start node, or -1 if there isn't one
+     */
+    public int getStartNode(IndexedGraph g) {
+        return g.getStartNode();
+    }
+
+    /**
+     * From an indexed graph, returns the id of the finish node.
+     *
+     * @param g
+     *            Graph with the maze
+     * @return the id of the Finish node, or -1 if there isn't one
+     */
+    public int getFinishNode(IndexedGraph g) {
+        return g.getFinishNode();
+    }
+
+    /**
+     * Determines whether a node value names the finish node
+     */
+    private static boolean isFinish(Object value) {
+        return value.toString().toLowerCase().equals("finish");
+    }
+
     /**
      * From a graph, returns the start node.
      * 
@@ -123,7 +613,7 @@ public class Mazes {
      * @return the Start node
      */
     public Node getStartNode(Graph g) {
-        Set<Node> nodes = g.getNodes();
+        Set<Node> nodes = g.getNodeView();
         Node start;
         for (Node node : nodes) {
             if (node.getValue().toString().toLowerCase().equals("start")) {
@@ -190,7 +680,7 @@ public class Mazes {
      * @return True if both a start and finish node exist in the graph
      */
     public boolean validateGraph(Graph g) {
-        Set<Node> nodes = g.getNodes();
+        Set<Node> nodes = g.getNodeView();
         Boolean start = false;
         Boolean finish = false;
         for (Node node : nodes) {
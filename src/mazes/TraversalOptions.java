@@ -0,0 +1,136 @@
+package mazes;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits on how much work a traversal may do before it gives up. By default
+ * there are no limits.
+ * 
+ * @author kevinlee
+ * 
+ */
+public class TraversalOptions {
+
+    private long nodeBudget = Long.MAX_VALUE;
+    private long edgeBudget = Long.MAX_VALUE;
+    private long deadline = 0;
+    private boolean hasDeadline = false;
+    private CancellationToken cancellationToken = null;
+
+    /**
+     * Sets the most nodes a traversal may expand (take off its queue or
+     * stack and look at the edges of)
+     * 
+     * @param nodeBudget
+     *            The number of nodes
+     * @return These options
+     * @throws IllegalArgumentException
+     *             If the budget is negative
+     */
+    public TraversalOptions setNodeBudget(long nodeBudget) {
+        if (nodeBudget < 0)
+            throw new IllegalArgumentException("Negative node budget " + nodeBudget);
+        this.nodeBudget = nodeBudget;
+        return this;
+    }
+
+    /**
+     * Returns the most nodes a traversal may expand
+     * 
+     * @return The number of nodes, or Long.MAX_VALUE if there is no limit
+     */
+    public long getNodeBudget() {
+        return nodeBudget;
+    }
+
+    /**
+     * Sets the most edges a traversal may follow
+     * 
+     * @param edgeBudget
+     *            The number of edges
+     * @return These options
+     * @throws IllegalArgumentException
+     *             If the budget is negative
+     */
+    public TraversalOptions setEdgeBudget(long edgeBudget) {
+        if (edgeBudget < 0)
+            throw new IllegalArgumentException("Negative edge budget " + edgeBudget);
+        this.edgeBudget = edgeBudget;
+        return this;
+    }
+
+    /**
+     * Returns the most edges a traversal may follow
+     * 
+     * @return The number of edges, or Long.MAX_VALUE if there is no limit
+     */
+    public long getEdgeBudget() {
+        return edgeBudget;
+    }
+
+    /**
+     * Sets the time by which a traversal must stop
+     * 
+     * @param deadline
+     *            The time, as given by System.nanoTime()
+     * @return These options
+     */
+    public TraversalOptions setDeadline(long deadline) {
+        this.deadline = deadline;
+        this.hasDeadline = true;
+        return this;
+    }
+
+    /**
+     * Sets the time by which a traversal must stop to a given time from now
+     * 
+     * @param timeout
+     *            How long the traversal may run
+     * @param unit
+     *            The unit of the timeout
+     * @return These options
+     */
+    public TraversalOptions setTimeout(long timeout, TimeUnit unit) {
+        return setDeadline(System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    /**
+     * Returns whether there is a deadline
+     * 
+     * @return true if a deadline has been set
+     */
+    public boolean hasDeadline() {
+        return hasDeadline;
+    }
+
+    /**
+     * Returns the time by which a traversal must stop
+     * 
+     * @return The time, as given by System.nanoTime()
+     */
+    public long getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Sets the token that can be used to stop a traversal
+     * 
+     * @param cancellationToken
+     *            The token, or null for none
+     * @return These options
+     */
+    public TraversalOptions setCancellationToken(CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+        return this;
+    }
+
+    /**
+     * Returns the token that can be used to stop a traversal
+     * 
+     * @return The token, or null if there is none
+     */
+    public CancellationToken getCancellationToken() {
+        return cancellationToken;
+    }
+
+}
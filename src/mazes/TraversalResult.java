@@ -0,0 +1,112 @@
+package mazes;
+
+import java.util.List;
+
+import graphs.Edge;
+
+/**
+ * The outcome of a traversal: whether it found a path, and how much work it
+ * did
+ * 
+ * @author kevinlee
+ * 
+ */
+public class TraversalResult {
+
+    /**
+     * How a traversal ended
+     */
+    public enum Status {
+        /** A path was found. */
+        FOUND,
+        /** The whole reachable graph was searched without finding a path. */
+        NOT_FOUND,
+        /** The node or edge budget ran out first. */
+        BUDGET_EXHAUSTED,
+        /** The deadline passed first. */
+        DEADLINE_EXCEEDED,
+        /** The traversal was cancelled first. */
+        CANCELLED
+    }
+
+    private final Status status;
+    private final List<Edge> path;
+    private final long nodesExpanded;
+    private final long edgesFollowed;
+    private final long elapsedNanos;
+
+    /**
+     * Creates a result
+     * 
+     * @param status
+     *            How the traversal ended
+     * @param path
+     *            The path found, or null
+     * @param nodesExpanded
+     *            The number of nodes expanded
+     * @param edgesFollowed
+     *            The number of edges followed
+     * @param elapsedNanos
+     *            How long the traversal took, in nanoseconds
+     */
+    public TraversalResult(Status status, List<Edge> path, long nodesExpanded, long edgesFollowed,
+            long elapsedNanos) {
+        this.status = status;
+        this.path = path;
+        this.nodesExpanded = nodesExpanded;
+        this.edgesFollowed = edgesFollowed;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Returns how the traversal ended
+     * 
+     * @return The status
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the path found
+     * 
+     * @return The edges of the path, in order from the start node, or null if
+     *         the status isn't FOUND
+     */
+    public List<Edge> getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the number of nodes expanded before the traversal ended
+     * 
+     * @return The number of nodes
+     */
+    public long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    /**
+     * Returns the number of edges followed before the traversal ended
+     * 
+     * @return The number of edges
+     */
+    public long getEdgesFollowed() {
+        return edgesFollowed;
+    }
+
+    /**
+     * Returns how long the traversal ran
+     * 
+     * @return The time, in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return status + " after " + nodesExpanded + " nodes and " + edgesFollowed + " edges";
+    }
+
+}
@@ -0,0 +1,113 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import graphs.BatchPathFinder;
+import graphs.Edge;
+import graphs.Graph;
+import graphs.Node;
+import graphs.PathQuery;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BatchPathFinderTest {
+
+    Graph g1;
+    BatchPathFinder finder;
+    ForkJoinPool pool;
+
+    @Before
+    public void setUp() throws Exception {
+        g1 = Graph.read(new StringReader("graphName {\n a 1 -> b\nb 2 -> c\nc 3 -> d\na 4 -> d\nd 5 -> a\ne 6 -> a\n}"));
+        finder = new BatchPathFinder(g1);
+        pool = new ForkJoinPool(3);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        pool.shutdown();
+    }
+
+    private PathQuery query(String source, String target) {
+        return new PathQuery(g1.findNode(source), g1.findNode(target));
+    }
+
+    @Test
+    public void testFindPaths() {
+        List<PathQuery> queries = new ArrayList<PathQuery>();
+        queries.add(query("a", "c"));
+        queries.add(query("b", "a"));
+        queries.add(query("a", "d"));
+        queries.add(query("a", "e"));
+        queries.add(query("a", "a"));
+        queries.add(query("a", "c"));
+        List<List<Edge>> paths = finder.findPaths(queries);
+        assertEquals(6, paths.size());
+        assertEquals(2, paths.get(0).size());
+        assertEquals("1", paths.get(0).get(0).getValue());
+        assertEquals("2", paths.get(0).get(1).getValue());
+        assertEquals(3, paths.get(1).size());
+        assertEquals(1, paths.get(2).size());
+        assertEquals("4", paths.get(2).get(0).getValue());
+        assertNull(paths.get(3));
+        assertTrue(paths.get(4).isEmpty());
+        assertEquals(paths.get(0), paths.get(5));
+    }
+
+    @Test
+    public void testPathsAreConnected() {
+        List<PathQuery> queries = new ArrayList<PathQuery>();
+        for (Node source : g1.getNodeView()) {
+            for (Node target : g1.getNodeView()) {
+                queries.add(new PathQuery(source, target));
+            }
+        }
+        finder = new BatchPathFinder(g1.freeze(), pool);
+        List<List<Edge>> paths = finder.findPaths(queries);
+        for (int i = 0; i < queries.size(); i++) {
+            PathQuery query = queries.get(i);
+            List<Edge> path = paths.get(i);
+            assertEquals(path != null, g1.isReachable(query.getSource(), query.getTarget()));
+            if (path != null) {
+                Node node = query.getSource();
+                for (Edge edge : path) {
+                    assertTrue(edge.getOrigin() == node);
+                    node = edge.getDestination();
+                }
+                assertTrue(node == query.getTarget());
+            }
+        }
+    }
+
+    @Test
+    public void testDuplicateValues() {
+        Node a2 = new Node("a", g1); // Shares a's value, and leads only to e
+        Edge toE = new Edge(a2, "7", g1.findNode("e"));
+        finder = new BatchPathFinder(g1.freeze(), pool);
+        List<PathQuery> queries = new ArrayList<PathQuery>();
+        queries.add(new PathQuery(a2, g1.findNode("c")));
+        queries.add(new PathQuery(a2, g1.findNode("e")));
+        queries.add(new PathQuery(g1.findNode("b"), a2));
+        List<List<Edge>> paths = finder.findPaths(queries);
+        assertEquals(4, paths.get(0).size()); // Round through e, not a 1 -> b
+        assertTrue(paths.get(0).get(0) == toE);
+        assertEquals(1, paths.get(1).size());
+        assertTrue(paths.get(1).get(0) == toE);
+        assertNull(paths.get(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNodeFromOtherGraph() {
+        List<PathQuery> queries = new ArrayList<PathQuery>();
+        queries.add(new PathQuery(g1.findNode("a"), new Node("a", new Graph("G2"))));
+        finder.findPaths(queries);
+    }
+
+}
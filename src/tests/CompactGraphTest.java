@@ -0,0 +1,114 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import graphs.CompactGraph;
+import graphs.Edge;
+import graphs.Graph;
+import graphs.Node;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class CompactGraphTest {
+
+    Graph g1;
+    Node n1, n2, n3, n4;
+    Edge e1, e2, e3, e4;
+    CompactGraph c1;
+
+    @Before
+    public void setUp() throws Exception {
+        g1 = new Graph("G1");
+        n1 = new Node("N1", g1);
+        n2 = new Node("N2", g1);
+        n3 = new Node("N3", g1);
+        n4 = new Node("N4", g1);
+        e1 = new Edge(n1, "E1", n2);
+        e2 = new Edge(n2, "E2", n1);
+        e3 = new Edge(n2, "E3", n2);
+        e4 = new Edge(n2, "E4", n3);
+        c1 = g1.freeze();
+    }
+
+    @Test
+    public void testCounts() {
+        assertEquals("G1", c1.getValue());
+        assertEquals(4, c1.getNodeCount());
+        assertEquals(4, c1.getEdgeCount());
+        assertEquals(1, c1.getOutDegree(c1.getId(n1)));
+        assertEquals(3, c1.getOutDegree(c1.getId(n2)));
+        assertEquals(0, c1.getOutDegree(c1.getId(n4)));
+    }
+
+    @Test
+    public void testIds() {
+        for (int node = 0; node < c1.getNodeCount(); node++) {
+            assertEquals(node, c1.getId(c1.getNode(node)));
+            assertEquals(c1.getNode(node).getValue(), c1.getNodeValue(node));
+        }
+        assertEquals(-1, c1.getId(new Node("N5", new Graph("G2"))));
+    }
+
+    @Test
+    public void testEdges() {
+        for (int node = 0; node < c1.getNodeCount(); node++) {
+            for (int e = c1.getFirstEdge(node); e < c1.getFirstEdge(node + 1); e++) {
+                Edge edge = c1.getEdge(e);
+                assertTrue(edge.getOrigin() == c1.getNode(node));
+                assertTrue(edge.getDestination() == c1.getNode(c1.getTarget(e)));
+                assertEquals(edge.getValue(), c1.getEdgeValue(e));
+            }
+        }
+    }
+
+    @Test
+    public void testInpointingEdges() {
+        int id2 = c1.getId(n2);
+        assertEquals(1, c1.getInDegree(c1.getId(n1)));
+        assertEquals(2, c1.getInDegree(id2));
+        assertEquals(1, c1.getInDegree(c1.getId(n3)));
+        assertEquals(0, c1.getInDegree(c1.getId(n4)));
+        assertEquals(id2, c1.getPredecessor(c1.getId(n3), 0));
+        for (int node = 0; node < c1.getNodeCount(); node++) {
+            assertEquals(c1.getNode(node).getInpointingEdges().size(), c1.getInDegree(node));
+            for (int i = 0; i < c1.getInDegree(node); i++) {
+                Node origin = c1.getNode(c1.getPredecessor(node, i));
+                boolean found = false;
+                for (Edge edge : origin.getOutpointingEdgeView()) {
+                    found |= edge.getDestination() == c1.getNode(node);
+                }
+                assertTrue(found);
+            }
+        }
+    }
+
+    @Test
+    public void testSnapshotIsUnchangedByLaterEdits() {
+        new Edge(n4, "E5", n1);
+        assertEquals(4, c1.getEdgeCount());
+        assertEquals(5, g1.freeze().getEdgeCount());
+    }
+
+    @Test
+    public void testDuplicateValues() {
+        Node n5 = new Node("N1", g1); // Shares n1's value
+        Edge e5 = new Edge(n5, "E1", n4);
+        CompactGraph c2 = g1.freeze();
+        int id1 = c2.getId(n1);
+        int id5 = c2.getId(n5);
+        assertTrue(id1 != id5);
+        assertTrue(c2.getNode(id5) == n5);
+        assertEquals(c2.getId(n4), c2.getTarget(c2.getFirstEdge(id5)));
+        assertTrue(c2.getEdge(c2.getFirstEdge(id5)) == e5);
+        assertTrue(c2.getEdge(c2.getFirstEdge(id1)) == e1);
+
+        // Renaming and deleting don't change the snapshot
+        n5.setValue("N5");
+        e5.delete();
+        assertEquals(id5, c2.getId(n5));
+        assertEquals("N1", c2.getNodeValue(id5));
+        assertTrue(c2.getEdge(c2.getFirstEdge(id5)) == e5);
+    }
+
+}
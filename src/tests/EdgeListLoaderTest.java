@@ -0,0 +1,89 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import graphs.Edge;
+import graphs.EdgeListLoader;
+import graphs.Graph;
+import graphs.IntGraph;
+import graphs.Node;
+
+import org.junit.Test;
+
+public class EdgeListLoaderTest {
+
+    private static InputStream input(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testReadGraph() throws IOException {
+        Graph g = new EdgeListLoader().readGraph("G", input("start,a,s\r\n a , b \n\nb,a,back\nb,finish"));
+        assertEquals("G", g.getValue());
+        assertEquals(4, g.getNodes().size());
+        Node b = g.findNode("b");
+        assertEquals(2, b.getOutpointingEdges().size());
+        for (Edge edge : b.getOutpointingEdges()) {
+            if (edge.getDestination() == g.findNode("a")) {
+                assertEquals("back", edge.getValue());
+            } else {
+                assertEquals(g.findNode("finish"), edge.getDestination());
+                assertEquals("", edge.getValue());
+            }
+        }
+        assertEquals("s", g.findNode("start").getOutpointingEdges().iterator().next().getValue());
+        assertTrue(g.isReachable(g.findNode("start"), g.findNode("finish")));
+    }
+
+    @Test
+    public void testManyBatches() throws IOException {
+        StringBuilder text = new StringBuilder();
+        int count = 2 * EdgeListLoader.BATCH_SIZE + 5;
+        for (int i = 0; i < count; i++) {
+            text.append("n").append(i).append(",n").append(i + 1).append(",e\n");
+        }
+        Graph g = new EdgeListLoader().readGraph("chain", input(text.toString()));
+        assertEquals(count + 1, g.getNodes().size());
+        assertTrue(g.isReachable(g.findNode("n0"), g.findNode("n" + count)));
+        assertFalse(g.isReachable(g.findNode("n1"), g.findNode("n0")));
+    }
+
+    @Test
+    public void testReadIntGraph() throws IOException {
+        IntGraph g = new EdgeListLoader('\t').readIntGraph("G", input("1\t2\ta\n2\t-3\n-3\t1\ta\n2147483647\t-2147483648"));
+        assertEquals(5, g.getNodeCount());
+        assertEquals(4, g.getEdgeCount());
+        int n2 = g.findNode(2);
+        assertEquals(1, g.getOutDegree(n2));
+        assertEquals(g.findNode(-3), g.getNeighbour(n2, 0));
+        assertEquals("", g.getEdgeValue(n2, 0));
+        assertEquals("a", g.getEdgeValue(g.findNode(-3), 0));
+        assertTrue(g.findNode(Integer.MIN_VALUE) >= 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadIntGraphWithText() throws IOException {
+        new EdgeListLoader().readIntGraph("G", input("1,2\n2,x\n"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadIntGraphWithOverflow() throws IOException {
+        new EdgeListLoader().readIntGraph("G", input("1,2147483648\n"));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testTooManyFields() throws IOException {
+        new EdgeListLoader().readGraph("G", input("a,b,c,d\n"));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testMissingNode() throws IOException {
+        new EdgeListLoader().readGraph("G", input("a,b\na\n"));
+    }
+
+}
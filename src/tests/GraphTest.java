@@ -2,7 +2,15 @@ package tests;
 
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 
 import graphs.Edge;
 import graphs.Graph;
@@ -37,15 +45,15 @@ public class GraphTest {
     
     @Test
     public void testGraphDeleteNode(){
-        assertTrue(g1.contents.contains(n1));
+        assertTrue(g1.getContents().contains(n1));
         g1.delete(n1);
-        assertFalse(g1.contents.contains(n1));
-        assertFalse(g1.contents.contains(e1)); // also deletes incoming and outgoing edges
-        assertFalse(g1.contents.contains(e2));
+        assertFalse(g1.getContents().contains(n1));
+        assertFalse(g1.getContents().contains(e1)); // also deletes incoming and outgoing edges
+        assertFalse(g1.getContents().contains(e2));
         assertFalse(n2.getOutpointingEdges().contains(e2));
         assertTrue(n2.getOutpointingEdges().contains(e3));
         g1.delete(n4);
-        assertFalse(g1.contents.contains(n4));
+        assertFalse(g1.getContents().contains(n4));
     }
     
     @Test
@@ -75,6 +83,62 @@ public class GraphTest {
         assertEquals("graphName {\nfromNode -- edge --> toNode\n}", g2.toString());
     }
     
+    @Test
+    public void testWrite() throws IOException {
+        Graph g2 = Graph.read(new StringReader("graphName {\n fromNode edge -> toNode\nlonely\n}"));
+        StringWriter out = new StringWriter();
+        g2.write(out);
+        assertTrue(out.toString().startsWith("graphName {\n"));
+        assertTrue(out.toString().contains("\nfromNode edge -> toNode\n"));
+        assertTrue(out.toString().contains("\nlonely\n"));
+        assertTrue(out.toString().endsWith("\n}\n"));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        g2.write(Channels.newChannel(bytes));
+        assertEquals(out.toString(), new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+    }
+    
+    @Test
+    public void testWriteReadsBack() throws IOException {
+        Graph g2 = Graph.read(new StringReader("graphName {\n a x -> b\nb -> c\n-12 -3 -> a\nc 4.5 -> -12\nlonely\n}"));
+        StringWriter out = new StringWriter();
+        g2.write(out);
+        Graph g3 = Graph.read(new StringReader(out.toString()));
+        assertEquals(g2.getValue(), g3.getValue());
+        assertEquals(new HashSet<String>(Arrays.asList(g2.toString().split("\n"))),
+                new HashSet<String>(Arrays.asList(g3.toString().split("\n"))));
+    }
+    
+    @Test
+    public void testReadInto(){
+        Graph g2 = Graph.read(new StringReader("graphName {\n a x -> b\nb y -> c\nb y -> c\nc -> a\n}"));
+        Node a = g2.findNode("a");
+        Node b = g2.findNode("b");
+        Graph.readInto(g2, new StringReader("delta {\n a z -> c\nd\n! b y -> c\n! c - > a\n! missing\n! a x -> missing\n}"));
+        assertEquals(4, g2.getNodes().size());
+        assertSame(a, g2.findNode("a"));
+        assertSame(b, g2.findNode("b"));
+        assertEquals(2, a.getOutpointingEdges().size());
+        assertEquals(1, b.getOutpointingEdges().size());
+        assertTrue(g2.findNode("c").getOutpointingEdges().isEmpty());
+        assertNotNull(g2.findNode("d"));
+        assertFalse(g2.isReachable(g2.findNode("c"), a));
+
+        Graph.readInto(g2, new StringReader("delta {\n! b\n! d}"));
+        assertNull(g2.findNode("b"));
+        assertNull(g2.findNode("d"));
+        assertEquals(2, g2.getNodes().size());
+        assertEquals(1, a.getOutpointingEdges().size());
+        assertEquals("graphName {\na -- z --> c\n}", g2.toString());
+    }
+    
+    @Test
+    public void testReadWithExclamationNode(){
+        Graph g2 = Graph.read(new StringReader("graphName {\n! a -> b\n}"));
+        assertEquals(2, g2.getNodes().size()); // "!" is a node, and "a" an edge
+        assertEquals("a", g2.findNode("!").getOutpointingEdges().iterator().next().getValue());
+    }
+    
     @Test
     public void testReadSimpleWithSpacedArrow(){
         Graph g2 = Graph.read(new StringReader("graphName {\n fromNode edge - > toNode\n}"));
@@ -197,7 +261,7 @@ public class GraphTest {
     public void testReadIsolatedNode(){
         Graph g2 = Graph.read(new StringReader("graphName {\n fromNode\n}"));
         assertTrue(g2.getValue().toString().equals("graphName"));
-        assertTrue(g2.contents.size() == 1);
+        assertTrue(g2.getContents().size() == 1);
         assertTrue(g2.getNodes().size() == 1);
         assertEquals("graphName {\nfromNode\n}", g2.toString());
     }
@@ -219,6 +283,127 @@ public class GraphTest {
     
     
 
+    @Test
+    public void testGetNodeView(){
+        Set<Node> nodes = g1.getNodeView();
+        assertTrue(nodes.contains(n1));
+        assertTrue(nodes.size() == 4);
+        assertFalse(nodes.contains(e1));
+        Node n5 = new Node("N5", g1);
+        assertTrue(nodes.contains(n5)); // view is live
+        g1.delete(n1);
+        assertFalse(nodes.contains(n1));
+        assertTrue(nodes.size() == 4);
+    }
+    
+    @Test(expected = UnsupportedOperationException.class)
+    public void testNodeViewIsReadOnly(){
+        g1.getNodeView().remove(n1);
+    }
+    
+    @Test
+    public void testFindNode(){
+        assertTrue(g1.findNode("N1") == n1);
+        assertTrue(g1.findNode("N4") == n4);
+        assertNull(g1.findNode("N5"));
+        g1.delete(n1);
+        assertNull(g1.findNode("N1"));
+        n2.setValue("M2");
+        assertNull(g1.findNode("N2"));
+        assertTrue(g1.findNode("M2") == n2);
+    }
+    
+    @Test
+    public void testFindNodeWithDuplicateValues(){
+        Node duplicate = new Node("N1", g1);
+        assertTrue(g1.findNode("N1") == n1);
+        g1.delete(n1);
+        assertTrue(g1.findNode("N1") == duplicate);
+        g1.delete(duplicate);
+        assertNull(g1.findNode("N1"));
+    }
+    
+    @Test
+    public void testFindNodeAfterDuplicatesChange(){
+        Node d1 = new Node("N1", g1);
+        Node d2 = new Node("N1", g1);
+        d1.setValue("other");
+        assertTrue(g1.findNode("N1") == n1);
+        assertTrue(g1.findNode("other") == d1);
+        g1.delete(n1);
+        assertTrue(g1.findNode("N1") == d2);
+        d2.setValue("N2");
+        assertNull(g1.findNode("N1"));
+        g1.delete(n2);
+        assertTrue(g1.findNode("N2") == d2);
+        
+        // Null values are indexed too
+        Node none1 = new Node(null, g1);
+        Node none2 = new Node(null, g1);
+        g1.delete(none1);
+        assertTrue(g1.findNode(null) == none2);
+        none2.setValue("N3");
+        assertNull(g1.findNode(null));
+        g1.delete(n3);
+        assertTrue(g1.findNode("N3") == none2);
+    }
+    
+    @Test
+    public void testGetOrCreateNode(){
+        assertTrue(g1.getOrCreateNode("N1") == n1);
+        Node n5 = g1.getOrCreateNode("N5");
+        assertTrue(g1.getNodes().contains(n5));
+        assertTrue(g1.getOrCreateNode("N5") == n5);
+        assertTrue(g1.getNodes().size() == 5);
+    }
+    
+    @Test
+    public void testIsReachable(){
+        assertTrue(g1.isReachable(n1, n3));
+        assertTrue(g1.isReachable(n2, n1));
+        assertTrue(g1.isReachable(n4, n4));
+        assertFalse(g1.isReachable(n3, n1));
+        assertFalse(g1.isReachable(n1, n4));
+        
+        // The cache is dropped when edges and nodes change
+        Edge e5 = new Edge(n3, "E5", n4);
+        assertTrue(g1.isReachable(n1, n4));
+        e5.delete();
+        assertFalse(g1.isReachable(n1, n4));
+        Node n5 = new Node("N5", g1);
+        new Edge(n4, "E6", n5);
+        assertTrue(g1.isReachable(n4, n5));
+        g1.delete(n2);
+        assertFalse(g1.isReachable(n1, n3));
+    }
+    
+    @Test
+    public void testIsReachableAfterRename(){
+        assertTrue(g1.isReachable(n1, n3));
+        n1.setValue("renamed");
+        assertTrue(g1.isReachable(n1, n3));
+        assertFalse(g1.isReachable(n3, n1));
+        n3.setValue(n1.getValue());
+        assertTrue(g1.isReachable(n1, n3));
+        assertFalse(g1.isReachable(n3, n1));
+    }
+    
+    @Test
+    public void testIsReachableWithDuplicateValues(){
+        Graph g2 = new Graph("G2");
+        Node x1 = new Node("x", g2);
+        Node x2 = new Node("x", g2);
+        Node y = new Node("y", g2);
+        new Edge(x2, "e", y);
+        assertFalse(g2.isReachable(x1, y));
+        assertTrue(g2.isReachable(x2, y));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testIsReachableFromOtherGraph(){
+        g1.isReachable(new Node("N1", new Graph("G2")), n1);
+    }
+    
     /******
      * Edge tests
      * ******
@@ -287,6 +472,20 @@ public class GraphTest {
         assertTrue(n4.getInpointingEdges().isEmpty());
     }
     
+    @Test
+    public void testEdgeViews(){
+        Set<Edge> out = n2.getOutpointingEdgeView();
+        Set<Edge> in = n2.getInpointingEdgeView();
+        assertEquals(n2.getOutpointingEdges(), out);
+        assertEquals(n2.getInpointingEdges(), in);
+        e3.delete();
+        assertFalse(out.contains(e3));
+        assertFalse(in.contains(e3));
+        assertTrue(out.size() == 2);
+        assertTrue(n4.getOutpointingEdgeView().isEmpty());
+        assertTrue(n4.getInpointingEdgeView().isEmpty());
+    }
+    
     @Test
     public void testNodeToString(){
         assertEquals("N1", n1.toString());
@@ -298,7 +497,7 @@ public class GraphTest {
         assertTrue(n1.getInpointingEdges().isEmpty());
         assertTrue(n1.getOutpointingEdges().isEmpty());
         assertTrue(n3.getOutpointingEdges().isEmpty());
-        assertFalse(g1.contents.contains(n2));
+        assertFalse(g1.getContents().contains(n2));
     }
 
 }
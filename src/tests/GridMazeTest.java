@@ -0,0 +1,149 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+
+import graphs.Graph;
+import graphs.Node;
+import mazes.GridMaze;
+import mazes.GridMaze.Direction;
+import mazes.Mazes;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class GridMazeTest {
+
+    GridMaze m1;
+
+    @Before
+    public void setUp() throws Exception {
+        // +-+-+-+
+        // |S    |
+        // +-+-+ +
+        // |F    |
+        // +-+-+-+
+        m1 = new GridMaze(3, 2);
+        m1.setStart(0, 0);
+        m1.setFinish(0, 1);
+        m1.setOpen(0, 0, Direction.E, true);
+        m1.setOpen(2, 0, Direction.W, true);
+        m1.setOpen(2, 0, Direction.S, true);
+        m1.setOpen(2, 1, Direction.W, true);
+        m1.setOpen(0, 1, Direction.E, true);
+    }
+
+    @Test
+    public void testWalls() {
+        assertTrue(m1.isOpen(1, 0, Direction.W));
+        assertTrue(m1.isOpen(1, 0, Direction.E));
+        assertFalse(m1.isOpen(1, 0, Direction.S));
+        assertFalse(m1.isOpen(0, 0, Direction.N));
+        assertTrue(m1.isOpen(2, 1, Direction.N));
+        m1.setOpen(1, 1, Direction.N, true);
+        assertTrue(m1.isOpen(1, 0, Direction.S));
+        m1.setOpen(1, 0, Direction.S, false);
+        assertFalse(m1.isOpen(1, 1, Direction.N));
+        assertEquals("+-+-+-+\n|S    |\n+-+-+ +\n|F    |\n+-+-+-+", m1.toString());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testOutsideWall() {
+        m1.setOpen(2, 1, Direction.E, true);
+    }
+
+    @Test
+    public void testIndexedGraph() {
+        assertEquals(6, m1.getNodeCount());
+        int corner = m1.getId(2, 0);
+        assertEquals(2, m1.getOutDegree(corner));
+        assertEquals("S", m1.getEdgeValue(corner, 0));
+        assertEquals(m1.getId(2, 1), m1.getNeighbour(corner, 0));
+        assertEquals("W", m1.getEdgeValue(corner, 1));
+        assertEquals(m1.getId(1, 0), m1.getNeighbour(corner, 1));
+        assertEquals("start", m1.getNodeValue(0));
+        assertEquals("finish", m1.getNodeValue(3));
+        assertEquals("c1_1", m1.getNodeValue(4));
+    }
+
+    @Test
+    public void testSolve() {
+        Mazes maze = new Mazes();
+        assertEquals(0, maze.getStartNode(m1));
+        String path = "start -- E --> c1_0\nc1_0 -- E --> c2_0\nc2_0 -- S --> c2_1\nc2_1 -- W --> c1_1\nc1_1 -- W --> finish\n";
+        assertEquals(path, maze.traverseGraphIterativeDeepening(m1, 10));
+        assertTrue(maze.traverseGraph(m1).endsWith("c1_1 -- W --> finish\n"));
+    }
+
+    @Test
+    public void testStartAndFinish() {
+        assertEquals(0, m1.getStartNode());
+        assertEquals(3, m1.getFinishNode());
+        m1.setFinish(0, 0);
+        assertEquals(-1, m1.getFinishNode());
+        assertEquals("No path exists", new Mazes().traverseGraph(m1));
+    }
+
+    @Test
+    public void testEdgesMatchWalls() {
+        // A comb: the top row open, with a passage down every other column
+        GridMaze comb = new GridMaze(65, 40);
+        for (int x = 0; x < 64; x++) {
+            comb.setOpen(x, 0, Direction.E, true);
+        }
+        for (int x = 0; x < 65; x += 2) {
+            for (int y = 0; y < 39; y++) {
+                comb.setOpen(x, y, Direction.S, true);
+            }
+        }
+        for (int node = 0; node < comb.getNodeCount(); node++) {
+            int x = comb.getX(node);
+            int y = comb.getY(node);
+            int index = 0;
+            for (Direction direction : Direction.values()) {
+                if (comb.isOpen(x, y, direction)) {
+                    assertEquals(direction.name(), comb.getEdgeValue(node, index));
+                    assertEquals(comb.getId(x + direction.getDx(), y + direction.getDy()), comb.getNeighbour(node, index));
+                    index++;
+                }
+            }
+            assertEquals(index, comb.getOutDegree(node));
+        }
+        assertTrue(new Mazes().traverseGraph(comb).endsWith("c64_38 -- S --> finish\n"));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testMissingEdge() {
+        m1.getNeighbour(m1.getId(1, 1), 2);
+    }
+
+    @Test
+    public void testToAndFromGraph() {
+        Graph g = m1.toGraph("grid");
+        assertEquals(6, g.getNodes().size());
+        Node corner = g.findNode("c2_0");
+        assertEquals(2, corner.getOutpointingEdges().size());
+        assertEquals(2, corner.getInpointingEdges().size());
+
+        GridMaze m2 = GridMaze.fromGraph(g, 3, 2);
+        assertEquals(m1.toString(), m2.toString());
+
+        // One-way edges are enough, and start and finish are placed by their
+        // edges
+        m2 = GridMaze.fromGraph(Graph.read(new StringReader("grid {\nc1_0 W -> start\nc1_0 E -> c2_0\nc2_0 S -> c2_1\n"
+                + "c2_1 W -> c1_1\nfinish E -> c1_1\n}")), 3, 2);
+        assertEquals(m1.toString(), m2.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromGraphWithBadEdge() {
+        GridMaze.fromGraph(Graph.read(new StringReader("grid {\nstart E -> c1_0\nc1_0 S -> c2_0\nc2_0 S -> finish\n}")), 3, 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromGraphWithoutFinish() {
+        GridMaze.fromGraph(Graph.read(new StringReader("grid {\nstart E -> c1_0\nfinish\n}")), 3, 2);
+    }
+
+}
@@ -0,0 +1,107 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+
+import graphs.Graph;
+import graphs.IntGraph;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class IntGraphTest {
+
+    IntGraph g1;
+
+    @Before
+    public void setUp() throws Exception {
+        g1 = new IntGraph("G1");
+        g1.addEdge(1, "a", 2);
+        g1.addEdge(2, "b", 1);
+        g1.addEdge(2, "c", 2);
+        g1.addEdge(-3, "a", 1);
+    }
+
+    @Test
+    public void testAddNodeAndEdge() {
+        assertEquals(3, g1.getNodeCount());
+        assertEquals(4, g1.getEdgeCount());
+        int n2 = g1.findNode(2);
+        assertEquals(2, g1.getLabel(n2));
+        assertEquals(2, g1.getOutDegree(n2));
+        assertEquals(n2, g1.addNode(2));
+        assertEquals(-1, g1.findNode(4));
+        assertEquals(3, g1.addNode(4));
+        assertEquals(0, g1.getOutDegree(3));
+    }
+
+    @Test
+    public void testNeighbours() {
+        int n1 = g1.findNode(1);
+        assertEquals(1, g1.getOutDegree(n1));
+        assertEquals(g1.findNode(2), g1.getNeighbour(n1, 0));
+        assertEquals("a", g1.getEdgeValue(n1, 0));
+        assertEquals(1, g1.getNodeValue(n1));
+    }
+
+    @Test
+    public void testRemoveEdge() {
+        assertTrue(g1.removeEdge(2, "b", 1));
+        assertFalse(g1.removeEdge(2, "b", 1));
+        assertFalse(g1.removeEdge(2, "z", 2));
+        assertFalse(g1.removeEdge(7, "a", 2));
+        int n2 = g1.findNode(2);
+        assertEquals(1, g1.getOutDegree(n2));
+        assertEquals(n2, g1.getNeighbour(n2, 0));
+        assertEquals("c", g1.getEdgeValue(n2, 0));
+        assertEquals(3, g1.getEdgeCount());
+    }
+
+    @Test
+    public void testToAndFromGraph() {
+        Graph g2 = g1.toGraph();
+        assertEquals(3, g2.getNodes().size());
+        assertTrue(g2.findNode("-3").getOutpointingEdges().size() == 1);
+        IntGraph g3 = IntGraph.fromGraph(g2);
+        assertEquals(3, g3.getNodeCount());
+        assertEquals(4, g3.getEdgeCount());
+        assertEquals(2, g3.getOutDegree(g3.findNode(2)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromGraphWithNames() {
+        IntGraph.fromGraph(Graph.read(new StringReader("graphName {\n fromNode edge -> toNode\n}")));
+    }
+
+    @Test
+    public void testRead() {
+        IntGraph g2 = IntGraph.read(new StringReader("graphName {\n -34 -123 -> -1\n1231 edge -> -34\n7\n}"));
+        assertEquals("graphName", g2.getValue());
+        assertEquals(4, g2.getNodeCount());
+        assertEquals(2, g2.getEdgeCount());
+        int n = g2.findNode(-34);
+        assertEquals(g2.findNode(-1), g2.getNeighbour(n, 0));
+        assertEquals("-123", g2.getEdgeValue(n, 0));
+        assertEquals(0, g2.getOutDegree(g2.findNode(7)));
+    }
+
+    @Test
+    public void testReadChain() {
+        IntGraph g2 = IntGraph.read(new StringReader("graphName {\n1 a -> 2\n2 b -> 3\n3\n-4 - > 1\n5 -> 5\n}"));
+        assertEquals(5, g2.getNodeCount());
+        assertEquals(4, g2.getEdgeCount());
+        assertEquals(g2.findNode(2), g2.getNeighbour(g2.findNode(1), 0));
+        assertEquals(g2.findNode(3), g2.getNeighbour(g2.findNode(2), 0));
+        assertEquals("b", g2.getEdgeValue(g2.findNode(2), 0));
+        assertEquals(0, g2.getOutDegree(g2.findNode(3)));
+        assertEquals(g2.findNode(1), g2.getNeighbour(g2.findNode(-4), 0));
+        assertEquals(g2.findNode(5), g2.getNeighbour(g2.findNode(5), 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadWithNames() {
+        IntGraph.read(new StringReader("graphName {\n 12 edge -> toNode\n}"));
+    }
+
+}
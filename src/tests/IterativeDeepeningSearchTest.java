@@ -0,0 +1,101 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.Random;
+
+import graphs.CompactGraph;
+import graphs.Graph;
+import graphs.IntGraph;
+import graphs.IterativeDeepeningSearch;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class IterativeDeepeningSearchTest {
+
+    Graph g1;
+    CompactGraph c1;
+    IterativeDeepeningSearch search;
+
+    @Before
+    public void setUp() throws Exception {
+        g1 = Graph.read(new StringReader("graphName {\n a 1 -> b\nb 2 -> c\nc 3 -> d\na 4 -> c\nc 5 -> a\nd 6 -> e\n}"));
+        c1 = g1.freeze();
+        search = new IterativeDeepeningSearch(c1);
+    }
+
+    private int id(String value) {
+        return c1.getId(g1.findNode(value));
+    }
+
+    @Test
+    public void testSearch() {
+        assertTrue(search.search(id("a"), id("d"), 10));
+        assertEquals(2, search.getDepth());
+        assertEquals(id("a"), search.getPathNode(0));
+        assertEquals(id("c"), search.getPathNode(1));
+        assertEquals(id("d"), search.getPathNode(2));
+        assertEquals("4", c1.getEdgeValue(id("a"), search.getPathEdge(0)));
+        assertEquals("3", c1.getEdgeValue(id("c"), search.getPathEdge(1)));
+
+        assertTrue(search.search(id("b"), id("b"), 0));
+        assertEquals(0, search.getDepth());
+        assertTrue(search.search(id("b"), id("a"), 2));
+        assertEquals(2, search.getDepth());
+    }
+
+    @Test
+    public void testSearchFails() {
+        assertFalse(search.search(id("a"), id("e"), 2));
+        assertEquals(-1, search.getDepth());
+        assertTrue(search.search(id("a"), id("e"), 3));
+        assertFalse(search.search(id("e"), id("a"), 100));
+        assertFalse(search.search(id("d"), id("a"), Integer.MAX_VALUE / 2)); // Stops when nothing is cut off
+
+        // A cycle that never leads to the finish node
+        g1 = Graph.read(new StringReader("graphName {\n x -> y\ny -> x\nz\n}"));
+        c1 = g1.freeze();
+        search = new IterativeDeepeningSearch(c1);
+        assertFalse(search.search(id("x"), id("z"), Integer.MAX_VALUE / 2));
+    }
+
+    @Test
+    public void testDepthsMatchBreadthFirstSearch() {
+        Random random = new Random(4);
+        IntGraph g = new IntGraph("random");
+        for (int i = 0; i < 40; i++) {
+            g.addNode(i);
+        }
+        for (int i = 0; i < 70; i++) {
+            g.addEdge(random.nextInt(40), "e", random.nextInt(40));
+        }
+        search = new IterativeDeepeningSearch(g);
+        for (int source = 0; source < 40; source++) {
+            int[] distances = new int[40];
+            Arrays.fill(distances, -1);
+            distances[source] = 0;
+            Queue<Integer> queue = new ArrayDeque<Integer>();
+            queue.add(source);
+            while (!queue.isEmpty()) {
+                int node = queue.remove();
+                for (int i = 0; i < g.getOutDegree(node); i++) {
+                    int next = g.getNeighbour(node, i);
+                    if (distances[next] < 0) {
+                        distances[next] = distances[node] + 1;
+                        queue.add(next);
+                    }
+                }
+            }
+            for (int target = 0; target < 40; target++) {
+                assertEquals(distances[target] >= 0, search.search(source, target, 40));
+                assertEquals(distances[target], search.getDepth());
+            }
+        }
+    }
+
+}
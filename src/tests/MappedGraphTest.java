@@ -0,0 +1,123 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import graphs.CompactGraph;
+import graphs.Graph;
+import graphs.MappedGraph;
+import graphs.Node;
+import mazes.Mazes;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class MappedGraphTest {
+
+    CompactGraph c1;
+    MappedGraph m1;
+
+    @Before
+    public void setUp() throws Exception {
+        Graph g1 = Graph.read(new StringReader(
+                "graphName {\n start s -> fromNode\nfromNode -123 -> finish\nfromNode f -> thisNode\nthisNode -> fromNode\nlonely\n}"));
+        c1 = g1.freeze();
+        File file = File.createTempFile("graph", ".bin");
+        file.deleteOnExit();
+        MappedGraph.write(c1, file.toPath());
+        m1 = MappedGraph.open(file.toPath());
+    }
+
+    @Test
+    public void testCounts() {
+        assertEquals("graphName", m1.getValue());
+        assertEquals(c1.getNodeCount(), m1.getNodeCount());
+        assertEquals(c1.getEdgeCount(), m1.getEdgeCount());
+    }
+
+    @Test
+    public void testSameAdjacency() {
+        for (int node = 0; node < c1.getNodeCount(); node++) {
+            assertEquals(c1.getNodeValue(node), m1.getNodeValue(node));
+            assertEquals(c1.getOutDegree(node), m1.getOutDegree(node));
+            for (int i = 0; i < c1.getOutDegree(node); i++) {
+                assertEquals(c1.getNeighbour(node, i), m1.getNeighbour(node, i));
+                assertEquals(c1.getEdgeValue(node, i), m1.getEdgeValue(node, i));
+            }
+        }
+    }
+
+    @Test
+    public void testTraverse() {
+        Mazes maze = new Mazes();
+        assertEquals(maze.traverseGraph(c1), maze.traverseGraph(m1));
+        assertTrue(maze.traverseGraph(m1).endsWith("fromNode -- -123 --> finish\n"));
+    }
+
+    @Test
+    public void testStartAndFinish() throws IOException {
+        assertEquals(c1.getStartNode(), m1.getStartNode());
+        assertEquals("start", m1.getNodeValue(m1.getStartNode()));
+        assertEquals("finish", m1.getNodeValue(m1.getFinishNode()));
+
+        Graph g = Graph.read(new StringReader("graphName {\n starts -> FiniSH\nsTART fin -> finis\n}"));
+        File file = File.createTempFile("graph", ".bin");
+        file.deleteOnExit();
+        MappedGraph.write(g.freeze(), file.toPath());
+        MappedGraph m = MappedGraph.open(file.toPath());
+        assertEquals("sTART", m.getNodeValue(m.getStartNode()));
+        assertEquals("FiniSH", m.getNodeValue(m.getFinishNode()));
+
+        g = Graph.read(new StringReader("graphName {\n Start -> end\n}"));
+        MappedGraph.write(g.freeze(), file.toPath());
+        m = MappedGraph.open(file.toPath());
+        assertEquals(-1, m.getFinishNode());
+        assertEquals("No path exists", new Mazes().traverseGraph(m));
+    }
+
+    @Test
+    public void testToGraph() {
+        Graph g = m1.toGraph();
+        assertEquals("graphName", g.getValue());
+        assertEquals(5, g.getNodes().size());
+        Node fromNode = g.findNode("fromNode");
+        assertEquals(2, fromNode.getOutpointingEdges().size());
+        assertEquals(2, fromNode.getInpointingEdges().size());
+        assertTrue(g.isReachable(g.findNode("start"), g.findNode("finish")));
+        assertFalse(g.isReachable(g.findNode("finish"), fromNode));
+        assertTrue(g.findNode("lonely").getOutpointingEdges().isEmpty());
+    }
+
+    @Test
+    public void testWriteAndReadBinary() throws IOException {
+        Graph g1 = Graph.read(new StringReader("graphName {\n a x -> b\nb y -> a\nb -> c\n}"));
+        File file = File.createTempFile("graph", ".bin");
+        file.deleteOnExit();
+        g1.writeBinary(file.toPath());
+        Graph g2 = Graph.readBinary(file.toPath());
+        assertEquals(lines(g1), lines(g2));
+    }
+
+    /**
+     * Returns the lines of a graph's printed form, which come in no
+     * particular order
+     */
+    private static Set<String> lines(Graph g) {
+        return new HashSet<String>(Arrays.asList(g.toString().split("\n")));
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpenRejectsOtherFiles() throws IOException {
+        File file = File.createTempFile("graph", ".txt");
+        file.deleteOnExit();
+        java.nio.file.Files.write(file.toPath(), "graphName {\n a -> b\n}\n........................................................................".getBytes());
+        MappedGraph.open(file.toPath());
+    }
+
+}
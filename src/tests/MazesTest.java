@@ -3,11 +3,15 @@ package tests;
 import static org.junit.Assert.*;
 
 import java.io.StringReader;
+import java.util.List;
 
 import graphs.Edge;
 import graphs.Graph;
 import graphs.Node;
+import mazes.CancellationToken;
 import mazes.Mazes;
+import mazes.TraversalOptions;
+import mazes.TraversalResult;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -57,4 +61,165 @@ public class MazesTest {
         assertNotEquals("No path exists", maze.traverseGraph(g1));
     }
 
+    @Test
+    public void testTraverseCompactGraph(){
+        assertEquals("start -- edge --> toNode\ntoNode -- edge2 --> finish\n", maze.traverseGraph(g1.freeze()));
+        g1 = Graph.read(new StringReader("graphName {\n start edge -> toNode\nfromNode edge2 -> finish}"));
+        assertEquals("No path exists", maze.traverseGraph(g1.freeze()));
+
+        // Include loops
+        g1 = Graph.read(new StringReader("graphName {\n start edge -> toNode\ntoNode edge2 -> fromNode\nfromNode edge3 -> toNode\n fromNode * -> fromNode\n fromNode 3 -> deadNode\n toNode -> finish}"));
+        assertTrue(maze.traverseGraph(g1.freeze()).endsWith("toNode --  --> finish\n"));
+    }
+
+    @Test
+    public void testFindShortestPath(){
+        List<Edge> path = maze.findShortestPath(g1);
+        assertEquals(2, path.size());
+        assertEquals("start -- edge --> toNode\ntoNode -- edge2 --> finish\n", maze.pathToString(path));
+        g1 = Graph.read(new StringReader("graphName {\n start edge -> toNode\nfromNode edge2 -> finish}"));
+        assertNull(maze.findShortestPath(g1));
+        assertEquals("No path exists", maze.pathToString(null));
+
+        // Only the shorter of two routes is returned, without the dead ends
+        g1 = Graph.read(new StringReader("graphName {\n start a -> n1\nn1 b -> n2\nn2 c -> finish\nstart d -> n3\nn3 e -> finish\nn3 f -> dead\nn1 g -> n1}"));
+        assertEquals("start -- d --> n3\nn3 -- e --> finish\n", maze.pathToString(maze.findShortestPath(g1)));
+        assertEquals(maze.findShortestPath(g1), maze.findShortestPath(g1.freeze()));
+    }
+
+    @Test
+    public void testFindShortestPathInCompactGraph(){
+        assertEquals("start -- edge --> toNode\ntoNode -- edge2 --> finish\n", maze.pathToString(maze.findShortestPath(g1.freeze())));
+        g1 = Graph.read(new StringReader("graphName {\n start edge -> toNode\nfromNode edge2 -> finish}"));
+        assertNull(maze.findShortestPath(g1.freeze()));
+
+        // Include loops
+        g1 = Graph.read(new StringReader("graphName {\n start edge -> toNode\ntoNode edge2 -> fromNode\nfromNode edge3 -> toNode\n fromNode * -> fromNode\n fromNode 3 -> deadNode\n toNode -> finish}"));
+        assertEquals("start -- edge --> toNode\ntoNode --  --> finish\n", maze.pathToString(maze.findShortestPath(g1.freeze())));
+
+        // The nearest of several finish nodes, as in a Graph
+        g1 = Graph.read(new StringReader("graphName {\n start a -> n1\nn1 b -> finish\nstart c -> FINISH\nFinish -> start\n}"));
+        assertEquals("start -- c --> FINISH\n", maze.pathToString(maze.findShortestPath(g1.freeze())));
+        assertEquals(maze.findShortestPath(g1), maze.findShortestPath(g1.freeze()));
+        g1 = Graph.read(new StringReader("graphName {\n start a -> n1\nn1 b -> FINISH\nstart c -> finish\nFinish -> start\n}"));
+        assertEquals("start -- c --> finish\n", maze.pathToString(maze.findShortestPath(g1.freeze())));
+
+        // Through the second of two nodes with the same value
+        g1 = new Graph("G");
+        Node start = new Node("start", g1);
+        new Node("mid", g1);
+        Node mid = new Node("mid", g1);
+        new Edge(start, "a", mid);
+        new Edge(mid, "b", new Node("finish", g1));
+        assertEquals("start -- a --> mid\nmid -- b --> finish\n", maze.pathToString(maze.findShortestPath(g1.freeze())));
+    }
+
+    @Test
+    public void testFindShortestPathBidirectional(){
+        assertEquals("start -- edge --> toNode\ntoNode -- edge2 --> finish\n", maze.pathToString(maze.findShortestPathBidirectional(g1)));
+        g1 = Graph.read(new StringReader("graphName {\n start edge -> toNode\nfromNode edge2 -> finish}"));
+        assertNull(maze.findShortestPathBidirectional(g1));
+        g1 = Graph.read(new StringReader("graphName {\n start edge -> toNode\n}"));
+        assertNull(maze.findShortestPathBidirectional(g1));
+
+        // Only the shorter of two routes is returned, without the dead ends
+        g1 = Graph.read(new StringReader("graphName {\n start a -> n1\nn1 b -> n2\nn2 c -> finish\nstart d -> n3\nn3 e -> finish\nn3 f -> dead\nn1 g -> n1\nx h -> finish}"));
+        assertEquals("start -- d --> n3\nn3 -- e --> finish\n", maze.pathToString(maze.findShortestPathBidirectional(g1)));
+
+        // A longer path, with a start node that has many branches
+        StringBuilder input = new StringBuilder("graphName {\n");
+        for (int i = 0; i < 10; i++) {
+            input.append("start -> b" + i + "\nb" + i + " -> b" + i + "x\n");
+            input.append("p" + i + " -> p" + (i + 1) + "\n");
+        }
+        input.append("b9x -> p0\np10 -> finish\n}");
+        g1 = Graph.read(new StringReader(input.toString()));
+        List<Edge> path = maze.findShortestPathBidirectional(g1);
+        assertEquals(maze.findShortestPath(g1), path);
+        assertEquals(14, path.size());
+    }
+
+    @Test
+    public void testFindShortestPathWithOptions(){
+        TraversalResult result = maze.findShortestPath(g1, new TraversalOptions());
+        assertEquals(TraversalResult.Status.FOUND, result.getStatus());
+        assertEquals(2, result.getPath().size());
+        assertEquals(2, result.getNodesExpanded());
+        assertEquals(2, result.getEdgesFollowed());
+
+        result = maze.findShortestPath(g1, new TraversalOptions().setNodeBudget(1));
+        assertEquals(TraversalResult.Status.BUDGET_EXHAUSTED, result.getStatus());
+        assertNull(result.getPath());
+        assertEquals(1, result.getNodesExpanded());
+        result = maze.findShortestPath(g1.freeze(), new TraversalOptions().setEdgeBudget(1));
+        assertEquals(TraversalResult.Status.BUDGET_EXHAUSTED, result.getStatus());
+        assertEquals(1, result.getEdgesFollowed());
+
+        g1 = Graph.read(new StringReader("graphName {\n start edge -> toNode\nfromNode edge2 -> finish}"));
+        assertEquals(TraversalResult.Status.NOT_FOUND, maze.findShortestPath(g1, new TraversalOptions()).getStatus());
+        assertEquals(TraversalResult.Status.NOT_FOUND, maze.findShortestPath(g1.freeze(), new TraversalOptions()).getStatus());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeNodeBudget(){
+        new TraversalOptions().setNodeBudget(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeEdgeBudget(){
+        new TraversalOptions().setEdgeBudget(-1);
+    }
+
+    @Test
+    public void testFindShortestPathStopsEarly(){
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+        TraversalResult result = maze.findShortestPath(g1, new TraversalOptions().setCancellationToken(token));
+        assertEquals(TraversalResult.Status.CANCELLED, result.getStatus());
+        result = maze.findShortestPath(g1.freeze(), new TraversalOptions().setDeadline(System.nanoTime() - 1));
+        assertEquals(TraversalResult.Status.DEADLINE_EXCEEDED, result.getStatus());
+
+        // A long chain, cancelled part of the way along
+        Graph g = new Graph("chain");
+        Node previous = new Node("start", g);
+        for (int i = 0; i < 10000; i++) {
+            Node node = new Node("n" + i, g);
+            new Edge(previous, "", node);
+            previous = node;
+        }
+        new Edge(previous, "", new Node("finish", g));
+        token = new CancellationToken() {
+            private int checks = 0;
+
+            @Override
+            public boolean isCancelled() {
+                if (++checks == 3) // As if cancelled by another thread mid-search
+                    cancel();
+                return super.isCancelled();
+            }
+        };
+        result = maze.findShortestPath(g, new TraversalOptions().setCancellationToken(token));
+        assertEquals(TraversalResult.Status.CANCELLED, result.getStatus());
+        assertNull(result.getPath());
+        assertTrue(result.getNodesExpanded() > 0);
+        assertTrue(result.getEdgesFollowed() > 0);
+        assertTrue(result.getNodesExpanded() + result.getEdgesFollowed() < 20002);
+
+        result = maze.findShortestPath(g.freeze(), new TraversalOptions().setNodeBudget(100));
+        assertEquals(TraversalResult.Status.BUDGET_EXHAUSTED, result.getStatus());
+        assertEquals(100, result.getNodesExpanded());
+
+        result = maze.findShortestPath(g, new TraversalOptions().setTimeout(1, java.util.concurrent.TimeUnit.HOURS));
+        assertEquals(TraversalResult.Status.FOUND, result.getStatus());
+        assertEquals(10001, result.getPath().size());
+    }
+
+    @Test
+    public void testTraverseGraphIterativeDeepening(){
+        assertEquals("start -- edge --> toNode\ntoNode -- edge2 --> finish\n", maze.traverseGraphIterativeDeepening(g1.freeze(), 10));
+        assertEquals("No path exists", maze.traverseGraphIterativeDeepening(g1.freeze(), 1));
+        g1 = Graph.read(new StringReader("graphName {\n start edge -> toNode\ntoNode edge2 -> fromNode\nfromNode edge3 -> toNode\n fromNode * -> fromNode\n fromNode 3 -> deadNode\n toNode -> finish}"));
+        assertEquals("start -- edge --> toNode\ntoNode --  --> finish\n", maze.traverseGraphIterativeDeepening(g1.freeze(), 10));
+    }
+
 }
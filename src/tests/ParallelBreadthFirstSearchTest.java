@@ -0,0 +1,103 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import graphs.CompactGraph;
+import graphs.Edge;
+import graphs.Graph;
+import graphs.Node;
+import graphs.ParallelBreadthFirstSearch;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelBreadthFirstSearchTest {
+
+    ForkJoinPool pool;
+    ParallelBreadthFirstSearch search;
+
+    @Before
+    public void setUp() throws Exception {
+        pool = new ForkJoinPool(4);
+        search = new ParallelBreadthFirstSearch(pool);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        pool.shutdown();
+    }
+
+    /**
+     * Finds the distances from a node with a plain breadth-first-search
+     */
+    private static int[] distances(CompactGraph g, int source) {
+        int[] distances = new int[g.getNodeCount()];
+        Arrays.fill(distances, -1);
+        distances[source] = 0;
+        Queue<Integer> queue = new ArrayDeque<Integer>();
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            int node = queue.remove();
+            for (int i = 0; i < g.getOutDegree(node); i++) {
+                int next = g.getNeighbour(node, i);
+                if (distances[next] < 0) {
+                    distances[next] = distances[node] + 1;
+                    queue.add(next);
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Builds a graph with random edges
+     */
+    private static CompactGraph randomGraph(Random random, int nodeCount, int edgeCount) {
+        Graph g = new Graph("random");
+        Node[] nodes = new Node[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            nodes[i] = new Node("n" + i, g);
+        }
+        for (int i = 0; i < edgeCount; i++) {
+            new Edge(nodes[random.nextInt(nodeCount)], "e", nodes[random.nextInt(nodeCount)]);
+        }
+        return g.freeze();
+    }
+
+    @Test
+    public void testSearch() {
+        Graph g = Graph.read(new StringReader("graphName {\n start -> a\na -> b\nb -> start\nb -> finish\nc -> start\n}"));
+        CompactGraph c = g.freeze();
+        int[] distances = search.search(c, c.getId(g.findNode("start")));
+        assertEquals(0, distances[c.getId(g.findNode("start"))]);
+        assertEquals(1, distances[c.getId(g.findNode("a"))]);
+        assertEquals(3, distances[c.getId(g.findNode("finish"))]);
+        assertEquals(-1, distances[c.getId(g.findNode("c"))]);
+    }
+
+    @Test
+    public void testSparseGraph() {
+        Random random = new Random(1);
+        CompactGraph g = randomGraph(random, 20000, 30000);
+        assertArrayEquals(distances(g, 0), search.search(g, 0));
+    }
+
+    @Test
+    public void testDenseGraph() {
+        // Large frontiers, which are searched bottom-up
+        Random random = new Random(2);
+        CompactGraph g = randomGraph(random, 10000, 200000);
+        for (int source = 0; source < 3; source++) {
+            assertArrayEquals(distances(g, source), search.search(g, source));
+        }
+    }
+
+}
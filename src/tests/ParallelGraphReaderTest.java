@@ -0,0 +1,145 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import graphs.Edge;
+import graphs.Graph;
+import graphs.Node;
+import graphs.ParallelGraphReader;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelGraphReaderTest {
+
+    ForkJoinPool pool;
+    ParallelGraphReader reader;
+
+    @Before
+    public void setUp() throws Exception {
+        pool = new ForkJoinPool(4);
+        reader = new ParallelGraphReader(pool, 1); // A chunk for every line
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        pool.shutdown();
+    }
+
+    /**
+     * Lists the nodes and edges of a graph in a fixed order
+     */
+    private static List<String> describe(Graph g) {
+        List<String> lines = new ArrayList<String>();
+        for (Node node : g.getNodeView()) {
+            lines.add(node.getValue().toString());
+            for (Edge edge : node.getOutpointingEdgeView()) {
+                lines.add(node.getValue() + " " + edge.getValue() + " -> " + edge.getDestination().getValue());
+            }
+        }
+        Collections.sort(lines);
+        return lines;
+    }
+
+    /**
+     * Checks that a graph is read the same way by both readers
+     */
+    private void assertSameAsRead(String input) {
+        Graph expected = Graph.read(new StringReader(input));
+        Graph actual = reader.read(new StringReader(input));
+        assertEquals(expected.getValue(), actual.getValue());
+        assertEquals(describe(expected), describe(actual));
+    }
+
+    @Test
+    public void testRead() {
+        assertSameAsRead("graphName {\n fromNode edge -> toNode\ntoNode -> fromNode\nfromNode edge -> toNode\n}");
+        assertSameAsRead("graphName {\n -34 -123 -> -1\n1231 edge -> -34\n7 // comment\n\n- - -> x\n}");
+        assertSameAsRead("graphName {}");
+        assertSameAsRead("graphName { a -> b\n}");
+    }
+
+    @Test
+    public void testReadSharesNodes() {
+        Graph g = reader.read(new StringReader("g {\na x -> b\nb y -> a\na z -> a\n}"));
+        assertEquals(2, g.getNodes().size());
+        Node a = g.findNode("a");
+        assertEquals(2, a.getOutpointingEdges().size());
+        assertEquals(2, a.getInpointingEdges().size());
+    }
+
+    @Test
+    public void testReadLargeGraph() {
+        StringBuilder input = new StringBuilder("big {\n");
+        for (int i = 0; i < 5000; i++) {
+            input.append("n" + (i * 7 % 1000) + " e" + i + " -> n" + (i % 1000) + "\n");
+        }
+        input.append("}");
+        reader = new ParallelGraphReader(pool, 256);
+        Graph g = reader.read(new StringReader(input.toString()));
+        assertEquals(1000, g.getNodes().size());
+        assertSameAsRead(input.toString());
+    }
+
+    @Test
+    public void testReadInSmallPieces() {
+        StringBuilder input = new StringBuilder("pieces {\n");
+        for (int i = 0; i < 300; i++) {
+            input.append("n" + (i % 50) + " e" + i + " -> n" + (i * 3 % 50) + "\n");
+        }
+        char[] longName = new char[5000]; // Longer than the first buffer
+        Arrays.fill(longName, 'x');
+        input.append(longName).append(" -> n1\n}");
+        final String text = input.toString();
+        Reader slow = new StringReader(text) {
+            @Override
+            public int read(char[] chars, int offset, int length) throws IOException {
+                return super.read(chars, offset, Math.min(length, 7));
+            }
+        };
+        Graph g = reader.read(slow);
+        assertEquals(describe(Graph.read(new StringReader(text))), describe(g));
+        assertEquals(51, g.getNodes().size());
+    }
+
+    @Test
+    public void testIgnoresInputAfterBrace() {
+        Graph g = reader.read(new StringReader("g {\na -> b\n}\nc -> d\n- - - -\n"));
+        assertEquals(2, g.getNodes().size());
+        assertNull(g.findNode("c"));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testMissingBrace() {
+        reader.read(new StringReader("g {\na -> b\nc -> d\n"));
+    }
+
+    @Test
+    public void testFirstErrorIsThrown() {
+        String input = "g {\na -> b\na - b\nx -> y -> z\n}";
+        String expected = null;
+        try {
+            Graph.read(new StringReader(input));
+        } catch (RuntimeException e) {
+            expected = e.getMessage();
+        }
+        assertEquals("Invalid graph syntax (3biv)", expected);
+        try {
+            reader.read(new StringReader(input));
+            fail();
+        } catch (RuntimeException e) {
+            assertEquals(expected, e.getMessage());
+        }
+    }
+
+}
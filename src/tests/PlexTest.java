@@ -1,5 +1,7 @@
 package tests;
 import static org.junit.Assert.*;
+import java.util.Set;
+
 import graphs.Plex;
 
 import org.junit.Before;
@@ -28,16 +30,16 @@ public class PlexTest {
     public void testAddAndRemoveContainer() {
         p1.addContainer(p2);
         p1.addContainer(p3);
-        assertTrue(p1.containers.contains(p2));
-        assertTrue(p2.contents.contains(p1));
-        assertTrue(p1.containers.contains(p3));
-        assertTrue(p3.contents.contains(p1));
+        assertTrue(p1.getContainers().contains(p2));
+        assertTrue(p2.getContents().contains(p1));
+        assertTrue(p1.getContainers().contains(p3));
+        assertTrue(p3.getContents().contains(p1));
         
         p1.removeContainer(p2);
-        assertFalse(p1.containers.contains(p2));
-        assertFalse(p2.contents.contains(p1));
-        assertTrue(p1.containers.contains(p3));
-        assertTrue(p3.contents.contains(p1));
+        assertFalse(p1.getContainers().contains(p2));
+        assertFalse(p2.getContents().contains(p1));
+        assertTrue(p1.getContainers().contains(p3));
+        assertTrue(p3.getContents().contains(p1));
     }
 
     /**
@@ -48,21 +50,21 @@ public class PlexTest {
     public void testAddAndRemoveContent() {
         p1.addContent(p2);
         p1.addContent(p3);
-        assertTrue(p1.contents.contains(p2));
-        assertTrue(p2.containers.contains(p1));
-        assertTrue(p1.contents.contains(p3));
-        assertTrue(p3.containers.contains(p1));
+        assertTrue(p1.getContents().contains(p2));
+        assertTrue(p2.getContainers().contains(p1));
+        assertTrue(p1.getContents().contains(p3));
+        assertTrue(p3.getContainers().contains(p1));
         
         p1.removeContent(p2);
-        assertFalse(p1.contents.contains(p2));
-        assertFalse(p2.containers.contains(p1));
-        assertTrue(p1.contents.contains(p3));
-        assertTrue(p3.containers.contains(p1));
+        assertFalse(p1.getContents().contains(p2));
+        assertFalse(p2.getContainers().contains(p1));
+        assertTrue(p1.getContents().contains(p3));
+        assertTrue(p3.getContainers().contains(p1));
         
         p1.addContainer(p2);
         p2.removeContent(p1);
-        assertFalse(p1.containers.contains(p2));
-        assertFalse(p2.contents.contains(p1));
+        assertFalse(p1.getContainers().contains(p2));
+        assertFalse(p2.getContents().contains(p1));
     }
 
     /**
@@ -73,16 +75,16 @@ public class PlexTest {
     public void testAddAndRemoveOrigin() {
         p1.addOrigin(p2);
         p1.addOrigin(p3);
-        assertTrue(p1.origins.contains(p2));
-        assertTrue(p2.destinations.contains(p1));
-        assertTrue(p1.origins.contains(p3));
-        assertTrue(p3.destinations.contains(p1));
+        assertTrue(p1.getOrigins().contains(p2));
+        assertTrue(p2.getDestinations().contains(p1));
+        assertTrue(p1.getOrigins().contains(p3));
+        assertTrue(p3.getDestinations().contains(p1));
         
         p1.removeOrigin(p2);
-        assertFalse(p1.origins.contains(p2));
-        assertFalse(p2.destinations.contains(p1));
-        assertTrue(p1.origins.contains(p3));
-        assertTrue(p3.destinations.contains(p1));
+        assertFalse(p1.getOrigins().contains(p2));
+        assertFalse(p2.getDestinations().contains(p1));
+        assertTrue(p1.getOrigins().contains(p3));
+        assertTrue(p3.getDestinations().contains(p1));
     }
 
     /**
@@ -93,20 +95,51 @@ public class PlexTest {
     public void testAddAndRemoveDestination() {
         p1.addDestination(p2);
         p1.addDestination(p3);
-        assertTrue(p1.destinations.contains(p2));
-        assertTrue(p2.origins.contains(p1));
-        assertTrue(p1.destinations.contains(p3));
-        assertTrue(p3.origins.contains(p1));
+        assertTrue(p1.getDestinations().contains(p2));
+        assertTrue(p2.getOrigins().contains(p1));
+        assertTrue(p1.getDestinations().contains(p3));
+        assertTrue(p3.getOrigins().contains(p1));
         
         p1.removeDestination(p2);
-        assertFalse(p1.destinations.contains(p2));
-        assertFalse(p2.origins.contains(p1));
-        assertTrue(p1.destinations.contains(p3));
-        assertTrue(p3.origins.contains(p1));
+        assertFalse(p1.getDestinations().contains(p2));
+        assertFalse(p2.getOrigins().contains(p1));
+        assertTrue(p1.getDestinations().contains(p3));
+        assertTrue(p3.getOrigins().contains(p1));
         
         p1.addOrigin(p2);
         p2.removeDestination(p1);
-        assertFalse(p1.origins.contains(p2));
-        assertFalse(p2.destinations.contains(p1));
+        assertFalse(p1.getOrigins().contains(p2));
+        assertFalse(p2.getDestinations().contains(p1));
+    }
+
+    /**
+     * Test that the relation accessors are live views that grow from
+     * empty to one member to many, and shrink back again
+     */
+    @Test
+    public void testRelationViews() {
+        Set<Plex> origins = p1.getOrigins();
+        assertTrue(origins.isEmpty());
+        p1.addOrigin(p2);
+        p1.addOrigin(p2);
+        assertEquals(1, origins.size());
+        assertTrue(origins.contains(p2));
+        p1.addOrigin(p3);
+        assertEquals(2, origins.size());
+        assertTrue(origins.contains(p3));
+        p1.removeOrigin(p2);
+        p1.removeOrigin(p3);
+        assertTrue(origins.isEmpty());
+        assertFalse(origins.contains(p2));
+        assertTrue(p2.getDestinations().isEmpty());
+    }
+
+    /**
+     * Test that the relation accessors cannot be used to change a Plex
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testRelationViewsAreReadOnly() {
+        p1.addContainer(p2);
+        p1.getContainers().clear();
     }
 }
\ No newline at end of file
@@ -0,0 +1,144 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import graphs.Graph;
+import graphs.ReadAheadReader;
+
+import org.junit.Test;
+
+public class ReadAheadReaderTest {
+
+    private static final String TEXT = "graphName {\n fromNode edge -> toNode\ntoNode back -> fromNode\n}";
+
+    private static String readAll(ReadAheadReader reader) throws IOException {
+        StringWriter out = new StringWriter();
+        char[] chars = new char[5];
+        int count;
+        while ((count = reader.read(chars, 0, chars.length)) != -1) {
+            out.write(chars, 0, count);
+        }
+        assertEquals(-1, reader.read(chars, 0, chars.length));
+        return out.toString();
+    }
+
+    @Test
+    public void testSmallBuffers() throws IOException {
+        String text = TEXT + " \u00e9\u4e2d";
+        ReadAheadReader reader = new ReadAheadReader(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)),
+                StandardCharsets.UTF_8, 3, 2);
+        assertEquals(text, readAll(reader));
+        reader.close();
+    }
+
+    @Test
+    public void testEmptyInput() throws IOException {
+        ReadAheadReader reader = new ReadAheadReader(new ByteArrayInputStream(new byte[0]));
+        assertEquals("", readAll(reader));
+        reader.close();
+    }
+
+    @Test
+    public void testCloseEarly() throws IOException {
+        byte[] bytes = new byte[1 << 20];
+        ReadAheadReader reader = new ReadAheadReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8, 16, 2);
+        assertEquals(4, reader.read(new char[4], 0, 4));
+        reader.close();
+        reader.close();
+    }
+
+    @Test
+    public void testCloseEarlyClosesInputOnReadingThread() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OutputStream out = new GZIPOutputStream(bytes);
+        out.write(new byte[1 << 22]);
+        out.close();
+        final Thread[] closedBy = new Thread[1];
+        InputStream zipped = new GZIPInputStream(new ByteArrayInputStream(bytes.toByteArray())) {
+            @Override
+            public void close() throws IOException {
+                closedBy[0] = Thread.currentThread();
+                super.close();
+            }
+        };
+        final Throwable[] uncaught = new Throwable[1];
+        Thread.UncaughtExceptionHandler handler = Thread.getDefaultUncaughtExceptionHandler();
+        Thread.setDefaultUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+            @Override
+            public void uncaughtException(Thread t, Throwable e) {
+                uncaught[0] = e;
+            }
+        });
+        try {
+            ReadAheadReader reader = new ReadAheadReader(zipped, StandardCharsets.UTF_8, 1024, 2);
+            assertEquals(4, reader.read(new char[4], 0, 4));
+            reader.close();
+            for (int i = 0; i < 500 && closedBy[0] == null; i++) {
+                Thread.sleep(10);
+            }
+            assertNotNull(closedBy[0]);
+            assertNotSame(Thread.currentThread(), closedBy[0]);
+            assertNull(uncaught[0]);
+        } finally {
+            Thread.setDefaultUncaughtExceptionHandler(handler);
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testReadGzippedPathWithError() throws IOException {
+        File file = File.createTempFile("graph", ".txt.gz");
+        file.deleteOnExit();
+        OutputStream out = new GZIPOutputStream(Files.newOutputStream(file.toPath()));
+        out.write("graphName {\n a -> -> b\n".getBytes(StandardCharsets.UTF_8));
+        out.write(new byte[1 << 22]);
+        out.close();
+        Graph.read(file.toPath());
+    }
+
+    @Test(expected = IOException.class)
+    public void testInputError() throws IOException {
+        InputStream broken = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Broken");
+            }
+        };
+        readAll(new ReadAheadReader(broken));
+    }
+
+    @Test
+    public void testReadPath() throws IOException {
+        File file = File.createTempFile("graph", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), TEXT.getBytes(StandardCharsets.UTF_8));
+        Graph g = Graph.read(file.toPath());
+        assertEquals("graphName", g.getValue());
+        assertEquals(2, g.getNodes().size());
+        assertTrue(g.isReachable(g.findNode("toNode"), g.findNode("fromNode")));
+    }
+
+    @Test
+    public void testReadGzippedPath() throws IOException {
+        File file = File.createTempFile("graph", ".txt.gz");
+        file.deleteOnExit();
+        OutputStream out = new GZIPOutputStream(Files.newOutputStream(file.toPath()));
+        out.write(TEXT.getBytes(StandardCharsets.UTF_8));
+        out.close();
+        Graph g = Graph.read(file.toPath());
+        assertEquals(2, g.getNodes().size());
+        assertEquals(1, g.findNode("fromNode").getOutpointingEdges().size());
+    }
+
+}
@@ -0,0 +1,73 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+
+import graphs.Edge;
+import graphs.Graph;
+import graphs.Node;
+import graphs.StronglyConnectedComponents;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class StronglyConnectedComponentsTest {
+
+    Graph g1;
+    StronglyConnectedComponents scc;
+
+    @Before
+    public void setUp() throws Exception {
+        // As in Graph sample.txt
+        g1 = Graph.read(new StringReader("graphName {\nfromNode -123 -> finish\nstart s -> fromNode\n"
+                + "-123 f -> openNode2\nfromNode f-> thisNode\nthisNode -> fromNode\nthisNode -> -123\n-123 -> openNode\n}"));
+        scc = new StronglyConnectedComponents(g1);
+    }
+
+    @Test
+    public void testComponents() {
+        assertEquals(6, scc.getComponentCount()); // 7 nodes, 2 of them on a loop
+        int loop = scc.getComponent(g1.findNode("fromNode"));
+        assertEquals(loop, scc.getComponent(g1.findNode("thisNode")));
+        assertEquals(2, scc.getSize(loop));
+        assertTrue(scc.getComponent(g1.findNode("start")) != loop);
+        assertEquals(-1, scc.getComponent(new Node("x", new Graph("G2"))));
+        for (int c = 0; c < scc.getComponentCount(); c++) {
+            for (int i = 0; i < scc.getSize(c); i++) {
+                assertEquals(c, scc.getComponent(scc.getMember(c, i)));
+            }
+        }
+    }
+
+    @Test
+    public void testCondensation() {
+        int loop = scc.getComponent(g1.findNode("fromNode"));
+        assertEquals(2, scc.getSuccessorCount(loop)); // finish and -123
+        int start = scc.getComponent(g1.findNode("start"));
+        assertEquals(1, scc.getSuccessorCount(start));
+        assertEquals(loop, scc.getSuccessor(start, 0));
+        for (int c = 0; c < scc.getComponentCount(); c++) {
+            for (int i = 0; i < scc.getSuccessorCount(c); i++) {
+                assertTrue(scc.getSuccessor(c, i) < c);
+            }
+        }
+    }
+
+    @Test
+    public void testLongPath() {
+        // Far deeper than a recursive search could go
+        Graph g = new Graph("path");
+        Node first = new Node(0, g);
+        Node previous = first;
+        for (int i = 1; i < 200000; i++) {
+            Node node = new Node(i, g);
+            new Edge(previous, "", node);
+            previous = node;
+        }
+        assertEquals(200000, new StronglyConnectedComponents(g).getComponentCount());
+        new Edge(previous, "", first);
+        assertEquals(1, new StronglyConnectedComponents(g).getComponentCount());
+    }
+
+}
@@ -50,4 +50,17 @@ public class TokenTest {
 	public void testToString(){
 		assertEquals("bob:NAME", name.toString());
 	}
+	
+	@Test
+	public void testGetNumericValue() {
+		assertEquals(14.0, new Token(TokenType.NUMBER, "14").getNumericValue(), 0.0);
+		assertEquals(0.25, new Token(TokenType.NUMBER, ".25f").getNumericValue(), 0.0);
+		assertEquals(-3e-2, new Token(TokenType.NUMBER, "-3e-2").getNumericValue(), 0.0);
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void testGetNumericValueOfName() {
+		name.getNumericValue();
+	}
+
 }
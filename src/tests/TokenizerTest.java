@@ -191,6 +191,23 @@ public class TokenizerTest {
 		
 	}
 	
+	@Test
+	public void testFloatTokenizerTrailingCharacters(){
+		floatTokenizer = new Tokenizer(new StringReader("12 \t34 5.e3d 1e+x 7f."), keywords);
+		assertEquals("12", floatTokenizer.next().getValue());
+		assertEquals("34", floatTokenizer.next().getValue());
+		Token token = floatTokenizer.next();
+		assertEquals("5.e3d", token.getValue());
+		assertEquals(5000.0, token.getNumericValue(), 0.0);
+		token = floatTokenizer.next();
+		assertEquals(TokenType.ERROR, token.getType());
+		assertEquals("1e+", token.getValue());
+		assertEquals("x", floatTokenizer.next().getValue());
+		assertEquals("7f", floatTokenizer.next().getValue());
+		assertEquals(TokenType.SYMBOL, floatTokenizer.next().getType());
+		assertEquals(TokenType.EOI, floatTokenizer.next().getType());
+	}
+	
 	@Test
 	public void testComments(){
 		t = new Tokenizer(new StringReader("//this is a comment"), keywords);
@@ -204,6 +221,64 @@ public class TokenizerTest {
 		assertEquals(TokenType.EOI, t.next().getType());		
 	}
 	
+	@Test
+	public void testCursor(){
+		t = new Tokenizer(new StringReader("Lorem {token 3.5e2\n"), keywords);
+		assertEquals(TokenType.KEYWORD, t.advance());
+		assertEquals(TokenType.KEYWORD, t.type());
+		assertTrue(t.contentEquals("Lorem"));
+		assertEquals(5, t.length());
+		assertEquals(TokenType.SYMBOL, t.advance());
+		assertTrue(t.contentEquals("{"));
+		assertEquals(TokenType.NAME, t.advance());
+		assertFalse(t.contentEquals("toke"));
+		assertEquals("token", t.value());
+		t.pushBack();
+		assertEquals(TokenType.NAME, t.advance());
+		assertTrue(t.contentEquals("token"));
+		assertEquals(TokenType.NUMBER, t.advance());
+		assertEquals("3.5e2", t.value());
+		assertEquals(TokenType.EOL, t.advance());
+		assertEquals(1, t.length());
+		assertEquals(TokenType.EOI, t.advance());
+		assertEquals(0, t.length());
+		assertFalse(t.hasNext());
+	}
+	
+	@Test
+	public void testCursorAndNextAgree(){
+		Token first = tokenizer.next();
+		tokenizer.pushBack();
+		assertEquals(TokenType.KEYWORD, tokenizer.advance());
+		tokenizer.pushBack();
+		assertTrue(first == tokenizer.next());
+		tokenizer.advance();
+		assertEquals("is", tokenizer.next().getValue());
+	}
+	
+	@Test
+	public void testLongInput(){
+		StringBuilder input = new StringBuilder();
+		for (int i = 0; i < 20000; i++) {
+			input.append("name").append(i).append(" 3.5e2 // comment\n");
+		}
+		StringBuilder longName = new StringBuilder("x");
+		for (int i = 0; i < 100000; i++) {
+			longName.append('y');
+		}
+		input.append(longName);
+		t = new Tokenizer(new StringReader(input.toString()), keywords);
+		for (int i = 0; i < 20000; i++) {
+			assertEquals("name" + i, t.next().getValue());
+			Token number = t.next();
+			assertEquals(TokenType.NUMBER, number.getType());
+			assertEquals("3.5e2", number.getValue());
+			assertEquals(TokenType.EOL, t.next().getType());
+		}
+		assertEquals(longName.toString(), t.next().getValue());
+		assertEquals(TokenType.EOI, t.next().getType());
+	}
+	
 //	@Test
 //	public void testValidateFloat(){
 //		assertEquals(null, t.validateFloat("123e+", 'a'));
@@ -0,0 +1,125 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.util.List;
+
+import graphs.Edge;
+import graphs.Graph;
+import graphs.Node;
+import graphs.WeightedPathFinder;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class WeightedPathFinderTest {
+
+    Graph g1;
+    WeightedPathFinder finder;
+
+    @Before
+    public void setUp() throws Exception {
+        g1 = Graph.read(new StringReader(
+                "graphName {\nstart 1 -> a\na 1 -> b\nb 1 -> finish\nstart 10 -> finish\nstart 2.5 -> c\nc 0.25 -> finish\n}"));
+        finder = new WeightedPathFinder(g1);
+    }
+
+    @Test
+    public void testGetWeight() {
+        assertEquals(-123, WeightedPathFinder.getWeight("-123"), 0);
+        assertEquals(1500, WeightedPathFinder.getWeight("1.5e3"), 0);
+        assertEquals(7, WeightedPathFinder.getWeight(7), 0);
+        assertEquals(WeightedPathFinder.DEFAULT_WEIGHT, WeightedPathFinder.getWeight(""), 0);
+        assertEquals(WeightedPathFinder.DEFAULT_WEIGHT, WeightedPathFinder.getWeight("edge"), 0);
+        assertEquals(WeightedPathFinder.DEFAULT_WEIGHT, WeightedPathFinder.getWeight("-"), 0);
+    }
+
+    @Test
+    public void testFindPath() {
+        assertFalse(finder.hasNegativeWeights());
+        List<Edge> path = finder.findPath(g1.findNode("start"), g1.findNode("finish"));
+        assertEquals(2, path.size());
+        assertEquals("2.5", path.get(0).getValue());
+        assertEquals("0.25", path.get(1).getValue());
+        assertEquals(2.75, WeightedPathFinder.getWeight(path), 0);
+        assertTrue(finder.findPath(g1.findNode("a"), g1.findNode("a")).isEmpty());
+        assertNull(finder.findPath(g1.findNode("finish"), g1.findNode("start")));
+    }
+
+    @Test
+    public void testDuplicateValues() {
+        Node start2 = new Node("start", g1); // Shares start's value
+        Edge edge = new Edge(start2, "20", g1.findNode("finish"));
+        finder = new WeightedPathFinder(g1);
+        List<Edge> path = finder.findPath(start2, g1.findNode("finish"));
+        assertEquals(1, path.size());
+        assertTrue(path.get(0) == edge);
+        path = finder.findPathIterativeDeepening(start2, g1.findNode("finish"), null);
+        assertEquals(1, path.size());
+        assertTrue(path.get(0) == edge);
+        assertNull(finder.findPath(g1.findNode("a"), start2));
+    }
+
+    @Test
+    public void testFindPathWithNames() {
+        g1 = Graph.read(new StringReader("graphName {\nstart x -> a\na y -> b\nb z -> finish\nstart -> b\n}"));
+        List<Edge> path = new WeightedPathFinder(g1).findPath(g1.findNode("start"), g1.findNode("finish"));
+        assertEquals(2, path.size());
+        assertEquals(2, WeightedPathFinder.getWeight(path), 0);
+    }
+
+    @Test
+    public void testFindPathWithHeuristic() {
+        final Node finish = g1.findNode("finish");
+        WeightedPathFinder.Heuristic heuristic = new WeightedPathFinder.Heuristic() {
+            @Override
+            public double estimate(Node node) {
+                return node == finish ? 0 : 0.25; // Every other node is at least one edge away
+            }
+        };
+        List<Edge> path = finder.findPath(g1.findNode("start"), finish, heuristic);
+        assertEquals(2.75, WeightedPathFinder.getWeight(path), 0);
+    }
+
+    @Test
+    public void testFindPathWithNegativeWeights() {
+        // As in Graph sample.txt
+        g1 = Graph.read(new StringReader("graphName {\nfromNode -123 -> finish\nstart s -> fromNode\n"
+                + "-123 f -> openNode2\nfromNode f-> thisNode\nthisNode -> fromNode\nthisNode -> -123\n-123 -> openNode\n}"));
+        finder = new WeightedPathFinder(g1);
+        assertTrue(finder.hasNegativeWeights());
+        List<Edge> path = finder.findPath(g1.findNode("start"), g1.findNode("finish"));
+        assertEquals(-122, WeightedPathFinder.getWeight(path), 0);
+        assertEquals("s", path.get(0).getValue());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNegativeCycle() {
+        g1 = Graph.read(new StringReader("graphName {\nstart 1 -> a\na -2 -> b\nb 1 -> a\nb 1 -> finish\n}"));
+        new WeightedPathFinder(g1).findPath(g1.findNode("start"), g1.findNode("finish"));
+    }
+
+    @Test
+    public void testFindPathIterativeDeepening() {
+        List<Edge> path = finder.findPathIterativeDeepening(g1.findNode("start"), g1.findNode("finish"), null);
+        assertEquals(2.75, WeightedPathFinder.getWeight(path), 0);
+        final Node finish = g1.findNode("finish");
+        path = finder.findPathIterativeDeepening(g1.findNode("start"), finish, new WeightedPathFinder.Heuristic() {
+            @Override
+            public double estimate(Node node) {
+                return node == finish ? 0 : 0.25;
+            }
+        });
+        assertEquals(2.75, WeightedPathFinder.getWeight(path), 0);
+        assertTrue(finder.findPathIterativeDeepening(finish, finish, null).isEmpty());
+        assertNull(finder.findPathIterativeDeepening(finish, g1.findNode("start"), null));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testIterativeDeepeningWithNegativeWeights() {
+        g1 = Graph.read(new StringReader("graphName {\nstart -1 -> finish\n}"));
+        new WeightedPathFinder(g1).findPathIterativeDeepening(g1.findNode("start"), g1.findNode("finish"), null);
+    }
+
+}